@@ -4,11 +4,15 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.resilience.annotation.EnableResilientMethods;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.awt.*;
 import java.net.URI;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableResilientMethods
 public class Andrea360BackendApplication {
 
     public static void main(String[] args) {
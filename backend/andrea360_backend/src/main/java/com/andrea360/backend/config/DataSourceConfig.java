@@ -0,0 +1,87 @@
+package com.andrea360.backend.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Without replica.urls the primary pool is the datasource and nothing is routed. This is decided
+// here at runtime rather than by a condition, because AOT processing fixes the bean graph at build time.
+// @Transactional(readOnly = true) marks the connection read-only before the lazy proxy fetches the
+// real one, and the proxy then takes it from the replica routing instead of the primary pool.
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${spring.datasource.url}") private String url;
+    @Value("${spring.datasource.username}") private String username;
+    @Value("${spring.datasource.password}") private String password;
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}") private int primaryPoolSize;
+
+    @Value("${replica.urls:}") private String replicaUrls;
+    @Value("${replica.poolSize:10}") private int replicaPoolSize;
+    @Value("${replica.maxLagMs:1000}") private long maxLagMs;
+    @Value("${replica.stickyMs:5000}") private long stickyMs;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource() {
+        HikariDataSource primary = pool("primary", url, primaryPoolSize, false);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(pool("replica-" + (i + 1), urls.get(i), replicaPoolSize, true));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagMs, stickyMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        if (!routing.hasReplicas()) {
+            return routing.primary();
+        }
+
+        DataSource writes = new DelegatingDataSource(routing.primary()) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                routing.recordWrite();
+                return super.getConnection();
+            }
+        };
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(writes);
+        proxy.setReadOnlyDataSource(routing);
+        return proxy;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.lagCheckMs:1000}")
+    public void checkReplicas() {
+        replicaRoutingDataSource().checkReplicas();
+    }
+
+    private HikariDataSource pool(String name, String jdbcUrl, int size, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(size);
+        config.setReadOnly(readOnly);
+        // connect on first use like Boot's own pool; a replica that is down at startup is only out of rotation
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+}
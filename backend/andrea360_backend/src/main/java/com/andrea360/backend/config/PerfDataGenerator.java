@@ -0,0 +1,477 @@
+package com.andrea360.backend.config;
+
+import com.andrea360.backend.service.OccupancyAnalyticsService;
+import com.andrea360.backend.service.RevenueReportService;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk dataset for performance environments: run with the perfdata profile against an empty schema.
+// Rows are built in memory and streamed with COPY, members in parallel chunks on their own connections.
+// All users share one pre-computed password hash (perfdata.password). Distributions: sessions lean to
+// morning and evening peaks, services follow a Zipf popularity curve, peak sessions fill up first,
+// and a share of bookings is cancelled and refunded. The credit ledger, snapshots, revenue rollups
+// and occupancy counters come out consistent, as if everything had gone through the services.
+@Component
+@Profile("perfdata")
+@RequiredArgsConstructor
+public class PerfDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataGenerator.class);
+
+    private static final String CURRENCY = "EUR";
+    private static final int FIRST_HOUR = 6;
+    private static final int LAST_HOUR = 21;
+    // local start hour -> how busy it is, 6:00 through 21:00
+    private static final double[] HOUR_WEIGHT = {
+            0.50, 0.90, 0.80, 0.50, 0.35, 0.35, 0.45, 0.35, 0.30, 0.35, 0.60, 0.95, 1.00, 0.95, 0.70, 0.40
+    };
+    private static final int[] PACK_SIZES = {1, 5, 10, 20};
+    private static final double[] PACK_SHARE = {0.10, 0.40, 0.40, 0.10};
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Luka", "Sara", "Marko", "Jelena", "Nikola", "Milica", "Stefan", "Ivana", "Petar",
+            "Tijana", "Filip", "Marija", "Nemanja", "Jovana", "Aleksa", "Teodora", "Vuk", "Katarina", "Ognjen"
+    };
+    private static final String[] LAST_NAMES = {
+            "Jovic", "Ilic", "Nikolic", "Petrovic", "Markovic", "Savic", "Kovacevic", "Popovic", "Lazic", "Ristic",
+            "Stojanovic", "Pavlovic", "Milosevic", "Tomic", "Djuric", "Vasic", "Simic", "Knezevic", "Babic", "Zivkovic"
+    };
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final OccupancyAnalyticsService occupancyAnalyticsService;
+    private final RevenueReportService revenueReportService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${perfdata.locations:10}") private int locations;
+    @Value("${perfdata.services:40}") private int services;
+    @Value("${perfdata.trainers:300}") private int trainers;
+    @Value("${perfdata.members:500000}") private int members;
+    @Value("${perfdata.historyDays:300}") private int historyDays;
+    @Value("${perfdata.futureDays:28}") private int futureDays;
+    @Value("${perfdata.threads:4}") private int threads;
+    @Value("${perfdata.chunkSize:10000}") private int chunkSize;
+    @Value("${perfdata.seed:42}") private long seed;
+    @Value("${perfdata.password:Perf123!}") private String password;
+    @Value("${perfdata.cancellationRate:0.08}") private double cancellationRate;
+    @Value("${perfdata.sessionCancellationRate:0.02}") private double sessionCancellationRate;
+    @Value("${perfdata.exitWhenDone:true}") private boolean exitWhenDone;
+    @Value("${app.timeZone:Europe/Belgrade}") private String timeZone;
+
+    // generated sessions, indexed by id - 1
+    private long[] sessionStart;
+    private byte[] sessionHour;
+    private int[] sessionCapacity;
+    private AtomicIntegerArray sessionBooked;
+    // per service: ids of its bookable (not cancelled) sessions
+    private long[][] sessionsByService;
+
+    private double[] servicePopularity;
+    private int[] serviceDuration;
+    private long[] servicePriceCents;
+
+    private final AtomicLong paymentIds = new AtomicLong();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final AtomicLong creditIds = new AtomicLong();
+    private final AtomicLong ledgerIds = new AtomicLong();
+    private final AtomicLong waitlistIds = new AtomicLong();
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT (SELECT count(*) FROM members) + (SELECT count(*) FROM sessions) + (SELECT count(*) FROM employees)",
+                Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("perfdata needs an empty schema, found " + existing + " members/sessions/employees");
+        }
+
+        long started = System.currentTimeMillis();
+        ZoneId zone = ZoneId.of(timeZone);
+        // BCrypt is the slow part of user creation; one hash serves every generated user
+        String passwordHash = passwordEncoder.encode(password);
+
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyReferenceData(copy, passwordHash);
+            long sessions = copySessions(copy, zone, new SplittableRandom(seed));
+            log.info("perfdata: {} locations, {} services, {} trainers, {} sessions", locations, services, trainers, sessions);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 1; from <= members; from += chunkSize) {
+                int first = from;
+                int last = Math.min(members, from + chunkSize - 1);
+                chunks.add(pool.submit(() -> {
+                    copyMemberChunk(first, last, passwordHash);
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        resetSequences();
+        revenueReportService.rebuild();
+        occupancyAnalyticsService.rebuild();
+        jdbcTemplate.execute("ANALYZE");
+
+        log.info("perfdata: {} members, {} payments, {} reservations, {} ledger entries, {} waitlist entries in {} s",
+                members, paymentIds.get(), reservationIds.get(), ledgerIds.get(), waitlistIds.get(),
+                (System.currentTimeMillis() - started) / 1000);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    // ---- locations, services, employees ----
+
+    private void copyReferenceData(CopyManager copy, String passwordHash) throws Exception {
+        StringBuilder rows = new StringBuilder();
+        for (int l = 1; l <= locations; l++) {
+            csv(rows, l, "Andrea360 Perf " + l, "Perf street " + l);
+        }
+        copy(copy, "locations (id, name, address)", rows);
+
+        servicePopularity = new double[services + 1];
+        serviceDuration = new int[services + 1];
+        servicePriceCents = new long[services + 1];
+        rows.setLength(0);
+        for (int s = 1; s <= services; s++) {
+            servicePopularity[s] = 1.0 / Math.pow(s, 0.8);
+            serviceDuration[s] = s % 3 == 0 ? 45 : 60;
+            servicePriceCents[s] = 800 + (s % 8) * 100;
+            csv(rows, s, "Perf service " + s, "Generated service", serviceDuration[s],
+                    money(servicePriceCents[s]), "true", locationOfService(s));
+        }
+        copy(copy, "fitness_services (id, name, description, duration_minutes, price, active, location_id)", rows);
+
+        // one admin, then the trainers; trainer t has employee id t + 1
+        rows.setLength(0);
+        csv(rows, 1, "Perf", "Admin", "perf-admin@perf.andrea360.test", "", "Administrator", "ADMIN", passwordHash, 1);
+        for (int t = 1; t <= trainers; t++) {
+            csv(rows, t + 1, FIRST_NAMES[t % FIRST_NAMES.length], LAST_NAMES[(t / FIRST_NAMES.length) % LAST_NAMES.length],
+                    "perf-trainer-" + t + "@perf.andrea360.test", "", "Trainer", "EMPLOYEE", passwordHash, locationOfTrainer(t));
+        }
+        copy(copy, "employees (id, first_name, last_name, email, phone, role, auth_role, password_hash, location_id)", rows);
+    }
+
+    // ---- sessions ----
+
+    // Every trainer works the hours of each day with a probability that follows HOUR_WEIGHT, one
+    // session per hour, so trainers never overlap. The service is drawn by popularity among the
+    // services of the trainer's location.
+    private long copySessions(CopyManager copy, ZoneId zone, SplittableRandom random) throws Exception {
+        LocalDate firstDay = LocalDate.now(zone).minusDays(historyDays);
+        int days = historyDays + futureDays;
+        long now = Instant.now().getEpochSecond();
+
+        int estimate = trainers * days * (LAST_HOUR - FIRST_HOUR + 1);
+        long[] start = new long[estimate];
+        byte[] hour = new byte[estimate];
+        int[] capacity = new int[estimate];
+        int[] service = new int[estimate];
+        boolean[] cancelled = new boolean[estimate];
+        int count = 0;
+
+        StringBuilder rows = new StringBuilder();
+        for (int d = 0; d < days; d++) {
+            LocalDate day = firstDay.plusDays(d);
+            double dayFactor = day.getDayOfWeek().getValue() >= 6 ? 0.55 : 0.75;
+            for (int t = 1; t <= trainers; t++) {
+                int location = locationOfTrainer(t);
+                for (int h = FIRST_HOUR; h <= LAST_HOUR; h++) {
+                    if (random.nextDouble() >= HOUR_WEIGHT[h - FIRST_HOUR] * dayFactor) continue;
+
+                    int s = pickService(location, random);
+                    long startsAt = ZonedDateTime.of(day.atTime(h, 0), zone).toEpochSecond();
+                    long endsAt = startsAt + serviceDuration[s] * 60L;
+                    boolean isCancelled = startsAt > now - 86_400L * 7 && random.nextDouble() < sessionCancellationRate;
+
+                    start[count] = startsAt;
+                    hour[count] = (byte) h;
+                    capacity[count] = 8 + (s % 5) * 3;
+                    service[count] = s;
+                    cancelled[count] = isCancelled;
+                    count++;
+
+                    csv(rows, count, ts(startsAt), ts(endsAt), capacity[count - 1],
+                            isCancelled ? "CANCELLED" : "SCHEDULED", location, s, t + 1);
+                }
+            }
+            if (rows.length() > 8 << 20) {
+                copy(copy, "sessions (id, starts_at, ends_at, capacity, status, location_id, fitness_service_id, trainer_employee_id)", rows);
+                rows.setLength(0);
+            }
+        }
+        copy(copy, "sessions (id, starts_at, ends_at, capacity, status, location_id, fitness_service_id, trainer_employee_id)", rows);
+
+        sessionStart = start;
+        sessionHour = hour;
+        sessionCapacity = capacity;
+        sessionBooked = new AtomicIntegerArray(count);
+
+        int[] perService = new int[services + 1];
+        for (int i = 0; i < count; i++) {
+            if (!cancelled[i]) perService[service[i]]++;
+        }
+        sessionsByService = new long[services + 1][];
+        for (int s = 1; s <= services; s++) {
+            sessionsByService[s] = new long[perService[s]];
+            perService[s] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!cancelled[i]) sessionsByService[service[i]][perService[service[i]]++] = i + 1;
+        }
+        return count;
+    }
+
+    // ---- members and everything they do ----
+
+    private void copyMemberChunk(int first, int last, String passwordHash) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed * 31 + first);
+        long now = Instant.now().getEpochSecond();
+
+        StringBuilder memberRows = new StringBuilder();
+        StringBuilder paymentRows = new StringBuilder();
+        StringBuilder reservationRows = new StringBuilder();
+        StringBuilder creditRows = new StringBuilder();
+        StringBuilder ledgerRows = new StringBuilder();
+        StringBuilder waitlistRows = new StringBuilder();
+
+        for (int m = first; m <= last; m++) {
+            int location = 1 + random.nextInt(locations);
+            csv(memberRows, m, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    "perf-" + m + "@perf.andrea360.test", "06" + (1_000_000 + random.nextInt(9_000_000)), passwordHash,
+                    LocalDate.of(1960 + random.nextInt(47), 1 + random.nextInt(12), 1 + random.nextInt(28)), location);
+
+            // 15% only have an account; the rest train one or two services of their location
+            if (random.nextDouble() < 0.15) continue;
+            int serviceCount = random.nextDouble() < 0.3 ? 2 : 1;
+            Set<Integer> chosen = new HashSet<>();
+            for (int k = 0; k < serviceCount; k++) {
+                chosen.add(pickService(location, random));
+            }
+
+            for (int s : chosen) {
+                generateMemberService(m, s, now, random, paymentRows, reservationRows, creditRows, ledgerRows, waitlistRows);
+            }
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy(copy, "members (id, first_name, last_name, email, phone, password_hash, date_of_birth, location_id)", memberRows);
+            copy(copy, "payments (id, member_id, fitness_service_id, amount, currency, method, status, created_at, paid_at, "
+                    + "external_ref, quantity, credits_applied)", paymentRows);
+            copy(copy, "reservations (id, member_id, session_id, status, created_at, cancelled_at)", reservationRows);
+            copy(copy, "member_credits (id, member_id, fitness_service_id, available_credits)", creditRows);
+            copy(copy, "credit_transactions (id, member_id, fitness_service_id, delta, type, reference_id, compacted, created_at)", ledgerRows);
+            copy(copy, "waitlist_entries (id, session_id, member_id, created_at)", waitlistRows);
+        }
+        log.info("perfdata: members {}..{} done", first, last);
+    }
+
+    // Bookings first, then the purchases that paid for them, dated before the first booking.
+    private void generateMemberService(int member, int service, long now, SplittableRandom random,
+                                       StringBuilder paymentRows, StringBuilder reservationRows, StringBuilder creditRows,
+                                       StringBuilder ledgerRows, StringBuilder waitlistRows) {
+        List<Integer> packs = new ArrayList<>();
+        int credits = 0;
+        do {
+            int size = pickPack(random);
+            packs.add(size);
+            credits += size;
+        } while (packs.size() < 4 && random.nextDouble() < 0.5);
+
+        long[] pool = sessionsByService[service];
+        if (pool.length == 0) return;
+
+        int target = (int) Math.round(credits * (0.6 + 0.4 * random.nextDouble()));
+        int active = 0;
+        long firstBooking = now;
+        Set<Long> seen = new HashSet<>();
+        List<long[]> ledger = new ArrayList<>(); // delta, type index, reference, at
+
+        for (int attempt = 0; attempt < target * 6 && active < target; attempt++) {
+            long sessionId = pool[random.nextInt(pool.length)];
+            int idx = (int) (sessionId - 1);
+            // busy hours attract more bookings
+            if (random.nextDouble() >= HOUR_WEIGHT[sessionHour[idx] - FIRST_HOUR]) continue;
+            if (!seen.add(sessionId)) continue;
+
+            long startsAt = sessionStart[idx];
+            long createdAt = Math.min(now - 60, startsAt - 3_600L - random.nextInt(7 * 86_400));
+            boolean cancelled = random.nextDouble() < cancellationRate;
+
+            if (!cancelled && !claimSeat(idx)) {
+                if (startsAt > now && random.nextDouble() < 0.3) {
+                    csv(waitlistRows, waitlistIds.incrementAndGet(), sessionId, member, ts(createdAt));
+                }
+                continue;
+            }
+
+            long reservationId = reservationIds.incrementAndGet();
+            firstBooking = Math.min(firstBooking, createdAt);
+            if (cancelled) {
+                long cancelledAt = Math.min(now - 30, createdAt + 60 + random.nextInt(48 * 3_600));
+                csv(reservationRows, reservationId, member, sessionId, "CANCELLED", ts(createdAt), ts(cancelledAt));
+                ledger.add(new long[]{-1, 1, reservationId, createdAt});
+                ledger.add(new long[]{1, 2, reservationId, cancelledAt});
+            } else {
+                csv(reservationRows, reservationId, member, sessionId, "CONFIRMED", ts(createdAt), "");
+                ledger.add(new long[]{-1, 1, reservationId, createdAt});
+                active++;
+            }
+        }
+
+        // purchases spread over the two months before the first booking, desk and online
+        long paidAt = 0;
+        for (int size : packs) {
+            paidAt = firstBooking - 86_400L * (1 + random.nextInt(60)) - random.nextInt(86_400);
+            long paymentId = paymentIds.incrementAndGet();
+            double method = random.nextDouble();
+            String methodName = method < 0.7 ? "ONLINE" : method < 0.9 ? "CARD" : "CASH";
+            String externalRef = "ONLINE".equals(methodName) ? "cs_perf_" + paymentId : "";
+            csv(paymentRows, paymentId, member, service, money(servicePriceCents[service] * size), CURRENCY, methodName,
+                    "PAID", ts(paidAt - 30 - random.nextInt(600)), ts(paidAt), externalRef, size, "true");
+            ledger.add(new long[]{size, 0, paymentId, paidAt});
+        }
+
+        // abandoned and declined checkouts, no credits
+        if (random.nextDouble() < 0.05) {
+            long paymentId = paymentIds.incrementAndGet();
+            long at = paidAt - random.nextInt(86_400);
+            csv(paymentRows, paymentId, member, service, money(servicePriceCents[service] * 5), CURRENCY, "ONLINE",
+                    random.nextBoolean() ? "PENDING" : "FAILED", ts(at), "", "cs_perf_" + paymentId, 5, "false");
+        }
+
+        // every entry is already folded into the snapshot
+        for (long[] e : ledger) {
+            String type = switch ((int) e[1]) {
+                case 0 -> "PURCHASE";
+                case 1 -> "BOOKING";
+                default -> "BOOKING_CANCELLED";
+            };
+            csv(ledgerRows, ledgerIds.incrementAndGet(), member, service, e[0], type, e[2], "true", ts(e[3]));
+        }
+        csv(creditRows, creditIds.incrementAndGet(), member, service, credits - active);
+    }
+
+    private boolean claimSeat(int idx) {
+        while (true) {
+            int booked = sessionBooked.get(idx);
+            if (booked >= sessionCapacity[idx]) return false;
+            if (sessionBooked.compareAndSet(idx, booked, booked + 1)) return true;
+        }
+    }
+
+    // ---- finishing ----
+
+    private void resetSequences() {
+        for (String table : List.of("locations", "employees", "members", "fitness_services", "payments",
+                "reservations", "member_credits", "waitlist_entries")) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                    + "(SELECT COALESCE(max(id), 0) + 1 FROM " + table + "), false)", Long.class);
+        }
+        // pooled sequences: Hibernate hands out [value - 49, value]
+        jdbcTemplate.queryForObject("SELECT setval('sessions_seq', (SELECT COALESCE(max(id), 0) + 50 FROM sessions))", Long.class);
+        jdbcTemplate.queryForObject(
+                "SELECT setval('credit_transactions_seq', (SELECT COALESCE(max(id), 0) + 50 FROM credit_transactions))", Long.class);
+    }
+
+    // ---- helpers ----
+
+    private int locationOfService(int service) {
+        return 1 + (service - 1) % locations;
+    }
+
+    private int locationOfTrainer(int trainer) {
+        return 1 + (trainer - 1) % locations;
+    }
+
+    private int pickService(int location, SplittableRandom random) {
+        double total = 0;
+        for (int s = location; s <= services; s += locations) total += servicePopularity[s];
+        double r = random.nextDouble() * total;
+        int last = location;
+        for (int s = location; s <= services; s += locations) {
+            r -= servicePopularity[s];
+            if (r <= 0) return s;
+            last = s;
+        }
+        return last;
+    }
+
+    private static int pickPack(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < PACK_SIZES.length; i++) {
+            r -= PACK_SHARE[i];
+            if (r <= 0) return PACK_SIZES[i];
+        }
+        return PACK_SIZES[PACK_SIZES.length - 1];
+    }
+
+    private static String ts(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).toString();
+    }
+
+    private static String money(long cents) {
+        long rest = cents % 100;
+        return cents / 100 + (rest < 10 ? ".0" : ".") + rest;
+    }
+
+    // generated values never contain commas, quotes or line breaks; an empty field is NULL
+    private static void csv(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.append(',');
+            out.append(values[i]);
+        }
+        out.append('\n');
+    }
+
+    private static void copy(CopyManager copy, String target, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        try {
+            copy.copyIn("COPY " + target + " FROM STDIN WITH (FORMAT csv)", new StringReader(rows.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + target + " failed", e);
+        }
+    }
+}
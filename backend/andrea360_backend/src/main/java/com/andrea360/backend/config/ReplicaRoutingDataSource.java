@@ -0,0 +1,144 @@
+package com.andrea360.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Connections for read-only transactions: round robin over the replicas that are up and no further
+// behind than maxLagMs, the primary when none is. A principal that wrote recently stays on the
+// primary for stickyMs, so members see their own bookings and payments right away.
+// Stickiness is per node; it covers replica lag, not a load balancer switching nodes.
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // 0 while the replica has replayed everything it received, so an idle primary doesn't look like lag
+    private static final String LAG_SQL = """
+        select coalesce(case
+            when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+            else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000
+        end, 0)
+    """;
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean usable;
+        volatile long lagMs = -1;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final long stickyMs;
+
+    private final AtomicInteger next = new AtomicInteger();
+    // principal name -> until when its reads stay on the primary (epoch millis)
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long maxLagMs, long stickyMs) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagMs = maxLagMs;
+        this.stickyMs = stickyMs;
+    }
+
+    public HikariDataSource primary() {
+        return primary;
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String principal = currentPrincipal();
+        if (principal != null) {
+            Long until = stickyUntil.get(principal);
+            if (until != null && until > System.currentTimeMillis()) {
+                return primary.getConnection();
+            }
+        }
+
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((start + i) % n);
+            if (!replica.usable) continue;
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                // taken out until the next lag check finds it healthy again
+                replica.usable = false;
+                log.warn("Replica {} unavailable, reading from the primary: {}", replica.pool.getPoolName(), e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the configured credentials only");
+    }
+
+    // called whenever a read-write transaction touches the primary
+    public void recordWrite() {
+        String principal = currentPrincipal();
+        if (principal != null) {
+            stickyUntil.put(principal, System.currentTimeMillis() + stickyMs);
+        }
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection c = replica.pool.getConnection();
+                 Statement st = c.createStatement();
+                 ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                replica.lagMs = (long) rs.getDouble(1);
+                boolean usable = replica.lagMs <= maxLagMs;
+                if (usable != replica.usable) {
+                    log.info("Replica {} {} (lag {} ms)", replica.pool.getPoolName(), usable ? "in rotation" : "out of rotation", replica.lagMs);
+                }
+                replica.usable = usable;
+            } catch (SQLException e) {
+                if (replica.usable) {
+                    log.warn("Replica {} failed its lag check: {}", replica.pool.getPoolName(), e.getMessage());
+                }
+                replica.usable = false;
+                replica.lagMs = -1;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until <= now);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(r -> r.pool.close());
+        primary.close();
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !auth.isAuthenticated() ? null : auth.getName();
+    }
+}
@@ -0,0 +1,25 @@
+package com.andrea360.backend.config;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.resilience.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Bounded retry with exponential backoff and jitter for optimistic conflicts.
+// Only put it on methods that run their own transaction per attempt (NOT_SUPPORTED + TransactionTemplate),
+// a retry inside an outer transaction would re-run against a rollback-only transaction.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(
+        includes = OptimisticLockingFailureException.class,
+        maxRetriesString = "${booking.retry.maxRetries:4}",
+        delayString = "${booking.retry.delayMs:10}",
+        jitterString = "${booking.retry.jitterMs:10}",
+        multiplierString = "${booking.retry.multiplier:2}",
+        maxDelayString = "${booking.retry.maxDelayMs:200}"
+)
+public @interface RetryOnConflict {
+}
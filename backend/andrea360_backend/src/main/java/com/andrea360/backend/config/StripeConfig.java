@@ -1,10 +1,13 @@
 package com.andrea360.backend.config;
 
+import com.andrea360.backend.service.tracing.TracingStripeHttpClient;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import com.stripe.Stripe;
+import com.stripe.net.ApiResource;
+import com.stripe.net.LiveStripeResponseGetter;
 
 @Configuration
 @Getter
@@ -17,6 +20,8 @@ public class StripeConfig {
     @PostConstruct
     public void init() {
         Stripe.apiKey = secretKey;
+        // same client as Stripe's default, with a trace span per API call
+        ApiResource.setStripeResponseGetter(new LiveStripeResponseGetter(new TracingStripeHttpClient()));
     }
 }
 
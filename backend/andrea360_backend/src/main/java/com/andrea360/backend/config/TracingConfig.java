@@ -0,0 +1,104 @@
+package com.andrea360.backend.config;
+
+import com.andrea360.backend.service.tracing.Span;
+import com.andrea360.backend.service.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Spans for controllers, services, repositories and the password encoder, through a plain Spring AOP
+// advisor (infrastructure role, so the auto-proxy creator that already serves @Transactional picks it
+// up). Outermost, so a service span includes its commit. Stripe calls are traced by
+// TracingStripeHttpClient, SQL by TracingSessionListener.
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    private static final String REPOSITORY_PACKAGE = "com.andrea360.backend.repository";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor() {
+        // target class -> layer and span name prefix
+        Map<Class<?>, String[]> labels = new ConcurrentHashMap<>();
+
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(clazz -> label(clazz) != null);
+
+        MethodInterceptor interceptor = invocation -> {
+            if (!Tracer.active() || invocation.getThis() == null) return invocation.proceed();
+
+            String[] label = labels.computeIfAbsent(AopUtils.getTargetClass(invocation.getThis()), TracingConfig::label);
+            if (label == null) return invocation.proceed();
+
+            Span span = Tracer.start(label[0], label[1] + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                Tracer.finish(span);
+            }
+        };
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                   ModelAndView modelAndView) {
+                Tracer.responseWritten();
+            }
+        });
+    }
+
+    private static String[] label(Class<?> clazz) {
+        if (AnnotatedElementUtils.hasAnnotation(clazz, Controller.class)) {
+            return new String[]{Tracer.CONTROLLER, ClassUtils.getUserClass(clazz).getSimpleName()};
+        }
+        if (AnnotatedElementUtils.hasAnnotation(clazz, Service.class)) {
+            return new String[]{Tracer.SERVICE, ClassUtils.getUserClass(clazz).getSimpleName()};
+        }
+        if (PasswordEncoder.class.isAssignableFrom(clazz)) {
+            return new String[]{Tracer.SECURITY, ClassUtils.getUserClass(clazz).getSimpleName()};
+        }
+        // Spring Data repositories are JDK proxies, named after the interface
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(clazz)) {
+            if (type.getName().startsWith(REPOSITORY_PACKAGE + ".")) {
+                return new String[]{Tracer.REPOSITORY, type.getSimpleName()};
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.andrea360.backend.config;
+
+import com.andrea360.backend.service.notification.OutboundBackpressureInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+// STOMP over WebSocket for live seat counts. Clients subscribe to
+//   /topic/sessions/{sessionId}
+//   /topic/locations/{locationId}/days/{yyyy-MM-dd}   (day in app.timeZone)
+// Server -> client only, there are no application destinations.
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+
+    @Value("${realtime.outbound.sendTimeLimitMs:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${realtime.outbound.sendBufferSizeLimit:65536}")
+    private int sendBufferSizeLimit;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                .setAllowedOrigins("http://localhost:5173");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(outboundBackpressureInterceptor);
+    }
+
+    // a client whose socket doesn't drain within these limits is disconnected instead of buffered for
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+}
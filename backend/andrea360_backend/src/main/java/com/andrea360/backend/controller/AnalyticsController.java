@@ -0,0 +1,35 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.analytics.OccupancyResponse;
+import com.andrea360.backend.entity.enums.OccupancyDimension;
+import com.andrea360.backend.service.OccupancyAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final OccupancyAnalyticsService occupancyAnalyticsService;
+
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @GetMapping("/occupancy")
+    public OccupancyResponse occupancy(
+            @RequestParam(defaultValue = "SERVICE") OccupancyDimension groupBy,
+            @RequestParam(required = false) Long fitnessServiceId,
+            @RequestParam(required = false) Long trainerId,
+            @RequestParam(required = false) Long locationId
+    ) {
+        return occupancyAnalyticsService.getOccupancy(groupBy, fitnessServiceId, trainerId, locationId);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/occupancy/rebuild")
+    public Map<String, Integer> rebuildOccupancy() {
+        return Map.of("rows", occupancyAnalyticsService.rebuild());
+    }
+}
@@ -0,0 +1,23 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.archive.ArchiveRunResponse;
+import com.andrea360.backend.service.ArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/run")
+    public ArchiveRunResponse run() {
+        return archiveService.archiveEnded();
+    }
+}
@@ -0,0 +1,23 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.cache.CacheStatsResponse;
+import com.andrea360.backend.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public CacheStatsResponse stats() {
+        return cacheStatsService.getStats();
+    }
+}
@@ -3,11 +3,21 @@ package com.andrea360.backend.controller;
 import com.andrea360.backend.dto.member.MemberCreditsResponse;
 import com.andrea360.backend.dto.member.MemberSessionCardResponse;
 import com.andrea360.backend.dto.session.BookSessionResponse;
+import com.andrea360.backend.dto.waitlist.WaitlistEntryResponse;
+import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.MemberRepository;
 import com.andrea360.backend.service.MemberBookingService;
+import com.andrea360.backend.service.WaitlistService;
+import com.andrea360.backend.service.notification.MemberEventStream;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,6 +28,9 @@ import java.util.List;
 public class MemberBookingController {
 
     private final MemberBookingService memberBookingService;
+    private final WaitlistService waitlistService;
+    private final MemberEventStream memberEventStream;
+    private final MemberRepository memberRepository;
 
     // You can also inject a small helper that reads memberId from Authentication.
     // Since you already have /api/auth/me, easiest is: frontend calls /me then uses memberId.
@@ -52,4 +65,44 @@ public class MemberBookingController {
     ) {
         return memberBookingService.bookSession(memberId, sessionId);
     }
-}
\ No newline at end of file
+
+    @PreAuthorize("hasRole('MEMBER')")
+    @PostMapping("/sessions/{sessionId}/waitlist")
+    @ResponseStatus(HttpStatus.CREATED)
+    public WaitlistEntryResponse joinWaitlist(
+            @RequestParam Long memberId,
+            @PathVariable Long sessionId
+    ) {
+        return waitlistService.join(memberId, sessionId);
+    }
+
+    @PreAuthorize("hasRole('MEMBER')")
+    @DeleteMapping("/sessions/{sessionId}/waitlist")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void leaveWaitlist(
+            @RequestParam Long memberId,
+            @PathVariable Long sessionId
+    ) {
+        waitlistService.leave(memberId, sessionId);
+    }
+
+    @PreAuthorize("hasRole('MEMBER')")
+    @GetMapping("/waitlist")
+    public List<WaitlistEntryResponse> myWaitlist(@RequestParam Long memberId) {
+        return waitlistService.getMyEntries(memberId);
+    }
+
+    // waitlist promotions and paid payments (with the new credit balance) are pushed here instead of polling;
+    // the stream is always the caller's own
+    @PreAuthorize("hasRole('MEMBER')")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@AuthenticationPrincipal UserDetails user) {
+        String email = user.getUsername();
+
+        Long memberId = memberRepository.findByEmailIgnoreCase(email)
+                .orElseThrow(() -> new NotFoundException("Member not found for email: " + email))
+                .getId();
+
+        return memberEventStream.subscribe(memberId);
+    }
+}
@@ -5,8 +5,10 @@ import com.andrea360.backend.dto.payment.PaymentResponse;
 import com.andrea360.backend.dto.payment.UpdatePaymentRequest;
 import com.andrea360.backend.dto.stripe.CreateCheckoutSessionRequest;
 import com.andrea360.backend.dto.stripe.CreateCheckoutSessionResponse;
+import com.andrea360.backend.dto.stripe.StripeReconciliationResponse;
 import com.andrea360.backend.exception.NotFoundException;
 import com.andrea360.backend.repository.MemberRepository;
+import com.andrea360.backend.service.PaymentReconciliationService;
 import com.andrea360.backend.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final MemberRepository memberRepository;
+    private final PaymentReconciliationService paymentReconciliationService;
 
     @PreAuthorize("hasRole('MEMBER')")
     @PostMapping
@@ -85,4 +88,24 @@ public class PaymentController {
         return paymentService.confirmStripeCheckout(sessionId);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/ledger-mismatches")
+    public List<Long> ledgerMismatches() {
+        return paymentService.findLedgerMismatches();
+    }
+
+    // 202 once the run is started, 409 while one is still going
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/stripe/reconcile")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void reconcileStripe() {
+        paymentReconciliationService.startReconcile();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stripe/reconcile")
+    public StripeReconciliationResponse lastStripeReconciliation() {
+        return paymentReconciliationService.lastReconciliation();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.report.RevenueRollupResponse;
+import com.andrea360.backend.entity.enums.RevenuePeriod;
+import com.andrea360.backend.service.RevenueReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final RevenueReportService revenueReportService;
+
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @GetMapping("/revenue")
+    public List<RevenueRollupResponse> revenue(
+            @RequestParam(defaultValue = "DAY") RevenuePeriod period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long locationId
+    ) {
+        return revenueReportService.getRevenue(period, from, to, locationId);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/revenue/rebuild")
+    public Map<String, Integer> rebuildRevenue() {
+        return Map.of("rows", revenueReportService.rebuild());
+    }
+}
@@ -66,4 +66,10 @@ public class ReservationController {
         return reservationService.getMyReservations(memberId);
     }
 
+    @PreAuthorize("hasRole('MEMBER')")
+    @GetMapping("/my/archive")
+    public List<ReservationResponse> myArchive(@RequestParam Long memberId) {
+        return reservationService.getMyArchivedReservations(memberId);
+    }
+
 }
\ No newline at end of file
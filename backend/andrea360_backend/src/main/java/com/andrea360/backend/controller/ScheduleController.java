@@ -0,0 +1,40 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.schedule.WeekScheduleResponse;
+import com.andrea360.backend.service.ScheduleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/schedule")
+public class ScheduleController {
+
+    private final ScheduleService scheduleService;
+
+    @GetMapping("/week")
+    public ResponseEntity<WeekScheduleResponse> week(
+            @RequestParam(name = "location", required = false) Long locationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            WebRequest request
+    ) {
+        LocalDate weekStart = scheduleService.weekStart(start);
+        String etag = scheduleService.weekEtag(locationId, weekStart);
+
+        // sets 304 + ETag on the response when the client's copy is current
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(scheduleService.getWeek(locationId, weekStart));
+    }
+}
@@ -1,7 +1,10 @@
 package com.andrea360.backend.controller;
 
 import com.andrea360.backend.dto.session.CreateSessionRequest;
+import com.andrea360.backend.dto.session.CreateSessionSeriesRequest;
+import com.andrea360.backend.dto.session.SessionCancellationResponse;
 import com.andrea360.backend.dto.session.SessionResponse;
+import com.andrea360.backend.dto.session.SessionSeriesResponse;
 import com.andrea360.backend.dto.session.UpdateSessionRequest;
 import com.andrea360.backend.service.SessionService;
 import jakarta.validation.Valid;
@@ -26,6 +29,13 @@ public class SessionController {
         return sessionService.create(request);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @PostMapping("/series")
+    @ResponseStatus(HttpStatus.CREATED)
+    public SessionSeriesResponse createSeries(@Valid @RequestBody CreateSessionSeriesRequest request) {
+        return sessionService.createSeries(request);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
     @PutMapping("/{id}")
     public SessionResponse update(@PathVariable Long id,
@@ -43,6 +53,12 @@ public class SessionController {
         return sessionService.getAll();
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @PatchMapping("/{id}/cancel")
+    public SessionCancellationResponse cancel(@PathVariable Long id) {
+        return sessionService.cancel(id);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -45,7 +45,7 @@ public class StripeWebhookController {
 
                 Payment payment = paymentRepository.findByExternalRef(stripeSessionId).orElse(null);
                 if (payment != null) {
-                    paymentService.markPaidFromStripe(payment, stripeSession);
+                    paymentService.markPaidFromStripe(payment.getId(), stripeSession);
                 }
             }
         }
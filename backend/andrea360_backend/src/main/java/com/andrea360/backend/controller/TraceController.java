@@ -0,0 +1,30 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.trace.RouteTracesResponse;
+import com.andrea360.backend.service.TraceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/traces")
+public class TraceController {
+
+    private final TraceService traceService;
+
+    // route as reported in the traces, e.g. "GET /api/member/sessions"
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/slowest")
+    public List<RouteTracesResponse> slowest(
+            @RequestParam(required = false) String route,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        return traceService.getSlowest(route, limit);
+    }
+}
@@ -0,0 +1,41 @@
+package com.andrea360.backend.controller;
+
+import com.andrea360.backend.dto.trainer.FreeSlotResponse;
+import com.andrea360.backend.dto.trainer.TrainerAgendaResponse;
+import com.andrea360.backend.service.TrainerScheduleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/trainers")
+public class TrainerController {
+
+    private final TrainerScheduleService trainerScheduleService;
+
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @GetMapping("/{id}/free-slots")
+    public List<FreeSlotResponse> freeSlots(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "60") int minMinutes
+    ) {
+        return trainerScheduleService.getFreeSlots(id, from, to, minMinutes);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','EMPLOYEE')")
+    @GetMapping("/{id}/agenda")
+    public TrainerAgendaResponse agenda(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to
+    ) {
+        return trainerScheduleService.getAgenda(id, from, to);
+    }
+}
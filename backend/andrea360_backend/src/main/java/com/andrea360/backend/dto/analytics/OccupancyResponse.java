@@ -0,0 +1,24 @@
+package com.andrea360.backend.dto.analytics;
+
+import com.andrea360.backend.entity.enums.OccupancyDimension;
+
+import java.util.List;
+
+public record OccupancyResponse(
+        OccupancyDimension groupBy,
+        long sessions,
+        long capacity,
+        long booked,
+        double fillRate,
+        List<Bucket> buckets
+) {
+    // key: entity id for SERVICE/TRAINER/LOCATION, ISO weekday (1-7), hour (0-23) or hour of week (0-167)
+    public record Bucket(
+            String key,
+            String label,
+            long sessions,
+            long capacity,
+            long booked,
+            double fillRate
+    ) {}
+}
@@ -0,0 +1,11 @@
+package com.andrea360.backend.dto.archive;
+
+import java.time.OffsetDateTime;
+
+public record ArchiveRunResponse(
+        OffsetDateTime cutoff,
+        int sessions,
+        int reservations,
+        int partitionsCreated,
+        int partitionsDetached
+) {}
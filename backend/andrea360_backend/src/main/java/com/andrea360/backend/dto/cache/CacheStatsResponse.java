@@ -0,0 +1,20 @@
+package com.andrea360.backend.dto.cache;
+
+import java.util.List;
+
+public record CacheStatsResponse(
+        List<Region> regions,
+        long queryHits,
+        long queryMisses,
+        double queryHitRate,
+        long statementsPrepared
+) {
+    public record Region(
+            String name,
+            long hits,
+            long misses,
+            long puts,
+            double hitRate,
+            long elementsInMemory
+    ) {}
+}
@@ -0,0 +1,10 @@
+package com.andrea360.backend.dto.payment;
+
+// "payment-paid" event on the member's event stream
+public record PaymentPaidMessage(
+        Long paymentId,
+        String status,
+        Long fitnessServiceId,
+        int creditsAdded,
+        int credits
+) {}
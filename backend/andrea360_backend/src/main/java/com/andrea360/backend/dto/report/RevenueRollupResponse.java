@@ -0,0 +1,22 @@
+package com.andrea360.backend.dto.report;
+
+import com.andrea360.backend.entity.enums.RevenuePeriod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RevenueRollupResponse(
+        RevenuePeriod period,
+        LocalDate periodStart,
+
+        Long locationId,
+        String locationName,
+
+        Long fitnessServiceId,
+        String fitnessServiceName,
+
+        String currency,
+        BigDecimal amount,
+        long quantity,
+        long paymentCount
+) {}
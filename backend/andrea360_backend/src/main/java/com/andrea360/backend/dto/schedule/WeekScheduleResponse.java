@@ -0,0 +1,26 @@
+package com.andrea360.backend.dto.schedule;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Columnar week view: index i of every array describes the same session.
+// Names are sent once in the dictionaries and referenced by id.
+public record WeekScheduleResponse(
+        LocalDate weekStart,
+        String timeZone,
+        Long locationId,
+
+        long[] ids,
+        long[] startsAt, // epoch seconds
+        int[] durationMinutes,
+        int[] capacity,
+        int[] booked,
+        String[] status,
+        long[] serviceIds,
+        long[] trainerIds,
+        long[] locationIds,
+
+        Map<Long, String> services,
+        Map<Long, String> trainers,
+        Map<Long, String> locations
+) {}
@@ -0,0 +1,55 @@
+package com.andrea360.backend.dto.session;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Setter
+public class CreateSessionSeriesRequest {
+
+    @NotNull
+    private Long locationId;
+
+    @NotNull
+    private Long fitnessServiceId;
+
+    @NotNull
+    private Long trainerEmployeeId;
+
+    @NotNull
+    @Min(1)
+    private Integer capacity;
+
+    // e.g. ["MONDAY", "WEDNESDAY"]
+    @NotEmpty
+    private Set<DayOfWeek> daysOfWeek;
+
+    // local time at the gym (app.timeZone)
+    @NotNull
+    private LocalTime startTime;
+
+    // Optional: if not sent -> service duration
+    @Min(1)
+    private Integer durationMinutes;
+
+    @NotNull
+    private LocalDate fromDate;
+
+    @NotNull
+    private LocalDate toDate;
+
+    // holidays etc., no session on these dates
+    private List<LocalDate> exceptDates;
+
+    // false -> any conflict rejects the whole series; true -> conflicting occurrences are skipped
+    private boolean skipConflicts;
+}
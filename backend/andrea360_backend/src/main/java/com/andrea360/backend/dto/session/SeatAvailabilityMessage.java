@@ -0,0 +1,15 @@
+package com.andrea360.backend.dto.session;
+
+import java.time.OffsetDateTime;
+
+// Pushed after every committed change of a session or its bookings. Carries the absolute counts,
+// so a client that missed a message is correct again with the next one.
+public record SeatAvailabilityMessage(
+        Long sessionId,
+        Long locationId,
+        OffsetDateTime startsAt,
+        String status,
+        int capacity,
+        int booked,
+        int available
+) {}
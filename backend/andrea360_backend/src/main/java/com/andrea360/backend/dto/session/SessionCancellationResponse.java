@@ -0,0 +1,16 @@
+package com.andrea360.backend.dto.session;
+
+import java.util.List;
+
+public record SessionCancellationResponse(
+        Long sessionId,
+        int cancelledReservations,
+        List<AffectedMember> affectedMembers
+) {
+    public record AffectedMember(
+            Long reservationId,
+            Long memberId,
+            String memberName,
+            String email
+    ) {}
+}
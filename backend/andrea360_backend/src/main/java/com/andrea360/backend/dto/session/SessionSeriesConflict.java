@@ -0,0 +1,10 @@
+package com.andrea360.backend.dto.session;
+
+import java.time.OffsetDateTime;
+
+public record SessionSeriesConflict(
+        OffsetDateTime startsAt,
+        OffsetDateTime endsAt,
+        // null when the clash is with another occurrence of the same series
+        Long conflictingSessionId
+) {}
@@ -0,0 +1,10 @@
+package com.andrea360.backend.dto.session;
+
+import java.util.List;
+
+public record SessionSeriesResponse(
+        int occurrences,
+        int created,
+        List<Long> sessionIds,
+        List<SessionSeriesConflict> conflicts
+) {}
@@ -0,0 +1,9 @@
+package com.andrea360.backend.dto.stripe;
+
+public record StripeReconciliationResponse(
+        int scanned,
+        int paid,
+        int cancelled,
+        int stillPending,
+        int stripeRequests
+) {}
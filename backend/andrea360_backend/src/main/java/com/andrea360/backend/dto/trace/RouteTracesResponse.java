@@ -0,0 +1,9 @@
+package com.andrea360.backend.dto.trace;
+
+import java.util.List;
+
+public record RouteTracesResponse(
+        String route,
+        int recentTraces,
+        List<TraceResponse> slowest
+) {}
@@ -0,0 +1,27 @@
+package com.andrea360.backend.dto.trace;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record TraceResponse(
+        String id,
+        String route,
+        int status,
+        OffsetDateTime startedAt,
+        double durationMs,
+        int sqlCount,
+        double sqlMs,
+        int droppedSpans,
+        SpanNode root
+) {
+    // sqlCount / sqlMs: statements run in this span itself, not in its children
+    public record SpanNode(
+            String layer,
+            String name,
+            double durationMs,
+            double selfMs,
+            int sqlCount,
+            double sqlMs,
+            List<SpanNode> children
+    ) {}
+}
@@ -0,0 +1,9 @@
+package com.andrea360.backend.dto.trainer;
+
+import java.time.OffsetDateTime;
+
+public record FreeSlotResponse(
+        OffsetDateTime startsAt,
+        OffsetDateTime endsAt,
+        long minutes
+) {}
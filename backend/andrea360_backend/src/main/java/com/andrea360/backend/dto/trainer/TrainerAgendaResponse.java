@@ -0,0 +1,37 @@
+package com.andrea360.backend.dto.trainer;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record TrainerAgendaResponse(
+        Long trainerId,
+        OffsetDateTime from,
+        OffsetDateTime to,
+        List<AgendaSession> sessions
+) {
+    public record AgendaSession(
+            Long sessionId,
+            OffsetDateTime startsAt,
+            OffsetDateTime endsAt,
+            String status,
+            Integer capacity,
+            int booked,
+
+            Long fitnessServiceId,
+            String fitnessServiceName,
+
+            Long locationId,
+            String locationName,
+
+            List<Attendee> attendees
+    ) {}
+
+    public record Attendee(
+            Long reservationId,
+            String reservationStatus,
+            Long memberId,
+            String firstName,
+            String lastName,
+            String phone
+    ) {}
+}
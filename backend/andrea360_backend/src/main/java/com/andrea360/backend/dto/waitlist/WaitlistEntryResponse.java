@@ -0,0 +1,12 @@
+package com.andrea360.backend.dto.waitlist;
+
+import java.time.OffsetDateTime;
+
+public record WaitlistEntryResponse(
+        Long sessionId,
+        OffsetDateTime startsAt,
+        Long fitnessServiceId,
+        String fitnessServiceName,
+        long position,
+        OffsetDateTime joinedAt
+) {}
@@ -0,0 +1,51 @@
+package com.andrea360.backend.entity;
+
+import com.andrea360.backend.entity.enums.CreditTransactionType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+// Append-only credit ledger. member_credits holds the compacted snapshot,
+// balance = snapshot + sum(delta) of entries that are not compacted yet.
+@Entity
+@Table(name = "credit_transactions")
+@Getter
+@Setter
+public class CreditTransaction {
+
+    // sequence (not identity) so Hibernate can batch the inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credit_transactions_seq")
+    @SequenceGenerator(name = "credit_transactions_seq", sequenceName = "credit_transactions_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_credit_tx_member"))
+    private Member member;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "fitness_service_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_credit_tx_fitness_service"))
+    private FitnessService fitnessService;
+
+    // positive = credits added, negative = credits spent
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private CreditTransactionType type;
+
+    // payment id for PURCHASE, reservation id for BOOKING / BOOKING_CANCELLED
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(nullable = false)
+    private boolean compacted = false;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+}
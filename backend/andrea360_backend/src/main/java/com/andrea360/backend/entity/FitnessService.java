@@ -3,10 +3,14 @@ package com.andrea360.backend.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(
         name = "fitness_services",
         uniqueConstraints = {
@@ -36,6 +40,9 @@ public class FitnessService {
     @Column(nullable = false)
     private boolean active = true;
 
+    @Column(name = "stripe_product_id", length = 100)
+    private String stripeProductId;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(
             name = "location_id",
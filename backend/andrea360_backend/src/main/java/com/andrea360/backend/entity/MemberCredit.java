@@ -27,4 +27,8 @@ public class MemberCredit {
 
     @Column(nullable = false)
     private int availableCredits;
+
+    // bumped by debits only; compaction moves ledger deltas into the snapshot without changing the balance
+    @Version
+    private Long version;
 }
\ No newline at end of file
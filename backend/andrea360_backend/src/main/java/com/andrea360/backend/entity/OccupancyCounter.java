@@ -0,0 +1,46 @@
+package com.andrea360.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Booked seats vs capacity per (service, trainer, location, hour of week), summed over all
+// non-cancelled sessions. Maintained incrementally on every session/booking change, rebuildable.
+@Entity
+@Table(
+        name = "occupancy_counters",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_occupancy_counter_bucket",
+                        columnNames = {"fitness_service_id", "trainer_employee_id", "location_id", "hour_of_week"})
+        }
+)
+@Getter
+@Setter
+public class OccupancyCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fitness_service_id", nullable = false)
+    private Long fitnessServiceId;
+
+    @Column(name = "trainer_employee_id", nullable = false)
+    private Long trainerId;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    // 0 = Monday 00:00-01:00 ... 167 = Sunday 23:00-24:00, in app.timeZone
+    @Column(name = "hour_of_week", nullable = false)
+    private short hourOfWeek;
+
+    @Column(name = "session_count", nullable = false)
+    private long sessionCount;
+
+    @Column(name = "capacity_total", nullable = false)
+    private long capacityTotal;
+
+    @Column(name = "booked_total", nullable = false)
+    private long bookedTotal;
+}
@@ -0,0 +1,37 @@
+package com.andrea360.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// What a session currently contributes to occupancy_counters. A change is applied as
+// "remove the old contribution, add the new one", so replaying an event is harmless.
+@Entity
+@Table(name = "occupancy_session_states")
+@Getter
+@Setter
+public class OccupancySessionState {
+
+    @Id
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    // null while the session contributes nothing (cancelled or deleted)
+    @Column(name = "fitness_service_id")
+    private Long fitnessServiceId;
+
+    @Column(name = "trainer_employee_id")
+    private Long trainerId;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "hour_of_week")
+    private Short hourOfWeek;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private int booked;
+}
@@ -48,4 +48,7 @@ public class Reservation {
 
     @Column(length = 200)
     private String note;
+
+    @Version
+    private Long version;
 }
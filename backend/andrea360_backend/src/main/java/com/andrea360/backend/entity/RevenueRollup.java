@@ -0,0 +1,54 @@
+package com.andrea360.backend.entity;
+
+import com.andrea360.backend.entity.enums.RevenuePeriod;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Pre-aggregated PAID revenue per day/month, location, service and currency.
+// Maintained incrementally on every PAID transition, rebuildable from payments.
+@Entity
+@Table(
+        name = "revenue_rollups",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_revenue_rollup_bucket",
+                        columnNames = {"period_type", "period_start", "location_id", "fitness_service_id", "currency"})
+        }
+)
+@Getter
+@Setter
+public class RevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period_type", nullable = false, length = 10)
+    private RevenuePeriod periodType;
+
+    // first day of the bucket (day itself, or first day of month)
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "fitness_service_id", nullable = false)
+    private Long fitnessServiceId;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(name = "amount_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountTotal;
+
+    @Column(name = "quantity_total", nullable = false)
+    private long quantityTotal;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+}
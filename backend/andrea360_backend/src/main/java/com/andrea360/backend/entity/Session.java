@@ -12,8 +12,10 @@ import java.time.OffsetDateTime;
 @Setter
 public class Session {
 
+    // sequence instead of identity so Hibernate can batch inserts (series creation)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sessions_seq")
+    @SequenceGenerator(name = "sessions_seq", sequenceName = "sessions_seq", allocationSize = 50)
     private Long id;
 
     // When the session starts/ends
@@ -47,4 +49,8 @@ public class Session {
     @JoinColumn(name = "trainer_employee_id", nullable = false,
             foreignKey = @ForeignKey(name = "fk_session_trainer_employee"))
     private Employee trainer;
+
+    // bumped by every booking (OPTIMISTIC_FORCE_INCREMENT), see SessionRepository.findByIdForBooking
+    @Version
+    private Long version;
 }
@@ -0,0 +1,43 @@
+package com.andrea360.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+// Stripe Price created for one FitnessService price version (currency + unit amount).
+@Entity
+@Table(
+        name = "stripe_prices",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stripe_price_version",
+                        columnNames = {"fitness_service_id", "currency", "unit_amount"})
+        }
+)
+@Getter
+@Setter
+public class StripePrice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "fitness_service_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_stripe_price_fitness_service"))
+    private FitnessService fitnessService;
+
+    @Column(nullable = false, length = 10)
+    private String currency; // lowercase, as Stripe uses it
+
+    // minor units (cents)
+    @Column(name = "unit_amount", nullable = false)
+    private long unitAmount;
+
+    @Column(name = "stripe_price_id", nullable = false, length = 100)
+    private String stripePriceId;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.andrea360.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+// One row per waiting member; queue order is the id order within a session.
+@Entity
+@Table(
+        name = "waitlist_entries",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_waitlist_session_member", columnNames = {"session_id", "member_id"})
+        }
+)
+@Getter
+@Setter
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "session_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_waitlist_session"))
+    private Session session;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_waitlist_member"))
+    private Member member;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,9 @@
+package com.andrea360.backend.entity.enums;
+
+public enum CreditTransactionType {
+    PURCHASE,
+    BOOKING,
+    BOOKING_CANCELLED,
+    SESSION_CANCELLED,
+    ADJUSTMENT
+}
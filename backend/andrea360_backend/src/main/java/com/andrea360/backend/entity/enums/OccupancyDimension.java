@@ -0,0 +1,10 @@
+package com.andrea360.backend.entity.enums;
+
+public enum OccupancyDimension {
+    SERVICE,
+    TRAINER,
+    LOCATION,
+    WEEKDAY,
+    HOUR,
+    HOUR_OF_WEEK
+}
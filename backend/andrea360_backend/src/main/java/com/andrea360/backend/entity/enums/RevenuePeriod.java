@@ -0,0 +1,6 @@
+package com.andrea360.backend.entity.enums;
+
+public enum RevenuePeriod {
+    DAY,
+    MONTH
+}
@@ -0,0 +1,19 @@
+package com.andrea360.backend.event;
+
+// A change committed by another node, delivered over the invalidation bus.
+// Never published for this node's own changes, those arrive as the local events.
+public record ClusterInvalidationEvent(
+        Kind kind,
+        Long id,
+        Long locationId
+) {
+    public enum Kind {
+        SESSION,
+        FITNESS_SERVICE,
+        LOCATION,
+        EMPLOYEE,
+        // member notifications: the member's event stream may be open on another node
+        PAYMENT,
+        RESERVATION
+    }
+}
@@ -0,0 +1,7 @@
+package com.andrea360.backend.event;
+
+// Changes of other nodes may have been missed (listener reconnected or a sequence gap did not fill),
+// every node-local cache should reload or drop everything.
+public record ClusterResyncEvent(
+        String reason
+) {}
@@ -0,0 +1,7 @@
+package com.andrea360.backend.event;
+
+// An employee (trainer) was created, changed or deleted.
+public record EmployeeChangedEvent(
+        Long employeeId,
+        Long locationId
+) {}
@@ -0,0 +1,7 @@
+package com.andrea360.backend.event;
+
+// A fitness service was created, renamed, repriced or deleted.
+public record FitnessServiceChangedEvent(
+        Long fitnessServiceId,
+        Long locationId
+) {}
@@ -0,0 +1,6 @@
+package com.andrea360.backend.event;
+
+// A location was created, renamed or deleted.
+public record LocationChangedEvent(
+        Long locationId
+) {}
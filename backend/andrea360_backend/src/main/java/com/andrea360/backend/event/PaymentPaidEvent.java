@@ -0,0 +1,9 @@
+package com.andrea360.backend.event;
+
+// A payment became PAID and its credits were added.
+public record PaymentPaidEvent(
+        Long memberId,
+        Long paymentId,
+        Long fitnessServiceId,
+        int creditsAdded
+) {}
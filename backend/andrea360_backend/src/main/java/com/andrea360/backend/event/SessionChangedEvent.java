@@ -0,0 +1,8 @@
+package com.andrea360.backend.event;
+
+// A session or its bookings changed (times, capacity, status, reservations).
+// sessionId is null when sessions of a location were removed in bulk (archival).
+public record SessionChangedEvent(
+        Long sessionId,
+        Long locationId
+) {}
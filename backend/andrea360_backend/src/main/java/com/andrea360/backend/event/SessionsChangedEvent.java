@@ -0,0 +1,10 @@
+package com.andrea360.backend.event;
+
+import java.util.List;
+
+// Several sessions of one location changed in one go (a created series). Listeners handle the ids
+// together, so a long series costs a few statements instead of a few per occurrence.
+public record SessionsChangedEvent(
+        List<Long> sessionIds,
+        Long locationId
+) {}
@@ -0,0 +1,7 @@
+package com.andrea360.backend.event;
+
+// member reached the head of the queue but had no credit left for the service
+public record WaitlistDroppedEvent(
+        Long memberId,
+        Long sessionId
+) {}
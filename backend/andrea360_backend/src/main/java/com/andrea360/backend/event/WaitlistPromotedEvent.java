@@ -0,0 +1,7 @@
+package com.andrea360.backend.event;
+
+public record WaitlistPromotedEvent(
+        Long memberId,
+        Long sessionId,
+        Long reservationId
+) {}
@@ -0,0 +1,69 @@
+package com.andrea360.backend.repository;
+
+import com.andrea360.backend.entity.CreditTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CreditTransactionRepository extends JpaRepository<CreditTransaction, Long> {
+
+    @Query("""
+        select coalesce(sum(ct.delta), 0)
+        from CreditTransaction ct
+        where ct.member.id = :memberId
+          and ct.fitnessService.id = :fitnessServiceId
+          and ct.compacted = false
+    """)
+    Integer sumPendingDelta(@Param("memberId") Long memberId, @Param("fitnessServiceId") Long fitnessServiceId);
+
+    // Folds a batch of pending entries into the member_credits snapshot in one statement.
+    // SKIP LOCKED lets a concurrent compaction on another node take a different batch.
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "credit_transactions"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "member_credits")
+    })
+    @Query(value = """
+        WITH batch AS (
+            SELECT id
+            FROM credit_transactions
+            WHERE compacted = FALSE
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+        ), folded AS (
+            UPDATE credit_transactions ct
+            SET compacted = TRUE
+            FROM batch
+            WHERE ct.id = batch.id
+            RETURNING ct.member_id, ct.fitness_service_id, ct.delta
+        )
+        INSERT INTO member_credits (member_id, fitness_service_id, available_credits)
+        SELECT member_id, fitness_service_id, SUM(delta)
+        FROM folded
+        GROUP BY member_id, fitness_service_id
+        ORDER BY member_id, fitness_service_id
+        ON CONFLICT (member_id, fitness_service_id)
+        DO UPDATE SET available_credits = member_credits.available_credits + EXCLUDED.available_credits
+        """, nativeQuery = true)
+    int compactPending(@Param("batchSize") int batchSize);
+
+    // PAID payments whose PURCHASE entries don't add up to the purchased quantity
+    @Query(value = """
+        SELECT p.id
+        FROM payments p
+        LEFT JOIN credit_transactions ct
+               ON ct.type = 'PURCHASE' AND ct.reference_id = p.id
+        WHERE p.status = 'PAID'
+        GROUP BY p.id, p.quantity
+        HAVING COALESCE(SUM(ct.delta), 0) <> p.quantity
+        ORDER BY p.id
+        """, nativeQuery = true)
+    List<Long> findPaidPaymentsOutOfBalance();
+}
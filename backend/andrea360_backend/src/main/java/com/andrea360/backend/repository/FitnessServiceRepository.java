@@ -1,8 +1,11 @@
 package com.andrea360.backend.repository;
 
 import com.andrea360.backend.entity.FitnessService;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 
@@ -11,6 +14,8 @@ public interface FitnessServiceRepository extends JpaRepository<FitnessService,
 
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
 
+    // query cache holds the ids, the entities and their locations come from the entity cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("""
    select fs
    from FitnessService fs
@@ -1,8 +1,12 @@
 package com.andrea360.backend.repository;
 
 import com.andrea360.backend.entity.MemberCredit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -12,14 +16,84 @@ public interface MemberCreditRepository extends JpaRepository<MemberCredit, Long
 
     Optional<MemberCredit> findByMemberIdAndFitnessServiceId(Long memberId, Long fitnessServiceId);
 
-    @Query("select coalesce(sum(mc.availableCredits), 0) from MemberCredit mc where mc.member.id = :memberId")
+    // snapshot + ledger entries that were not compacted yet
+    @Query("""
+    select coalesce(sum(mc.availableCredits), 0) + coalesce((
+        select sum(ct.delta)
+        from CreditTransaction ct
+        where ct.member.id = :memberId
+          and ct.compacted = false
+    ), 0)
+    from MemberCredit mc
+    where mc.member.id = :memberId
+""")
     Integer sumCreditsByMemberId(@Param("memberId") Long memberId);
 
     @Query("""
-    select mc
+    select mc.availableCredits + coalesce((
+        select sum(ct.delta)
+        from CreditTransaction ct
+        where ct.member.id = mc.member.id
+          and ct.fitnessService.id = mc.fitnessService.id
+          and ct.compacted = false
+    ), 0)
+    from MemberCredit mc
+    where mc.member.id = :memberId
+      and mc.fitnessService.id = :fitnessServiceId
+""")
+    Optional<Long> findBalance(@Param("memberId") Long memberId, @Param("fitnessServiceId") Long fitnessServiceId);
+
+    // rows: fitnessServiceId, fitnessServiceName, balance
+    @Query("""
+    select fs.id, fs.name, mc.availableCredits + coalesce((
+        select sum(ct.delta)
+        from CreditTransaction ct
+        where ct.member.id = mc.member.id
+          and ct.fitnessService.id = fs.id
+          and ct.compacted = false
+    ), 0)
     from MemberCredit mc
-    join fetch mc.fitnessService fs
+    join mc.fitnessService fs
+    where mc.member.id = :memberId
+    order by fs.name asc
+""")
+    List<Object[]> findBalancesByMemberId(@Param("memberId") Long memberId);
+
+    // the declared table keeps Hibernate from clearing the whole second-level cache on this native write
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "member_credits"))
+    @Query(value = """
+    INSERT INTO member_credits (member_id, fitness_service_id, available_credits)
+    VALUES (:memberId, :fitnessServiceId, 0)
+    ON CONFLICT (member_id, fitness_service_id) DO NOTHING
+""", nativeQuery = true)
+    int insertIfMissing(@Param("memberId") Long memberId, @Param("fitnessServiceId") Long fitnessServiceId);
+
+    // rows: version, balance (read in one statement, so it can't straddle a compaction)
+    @Query("""
+    select mc.version, mc.availableCredits + coalesce((
+        select sum(ct.delta)
+        from CreditTransaction ct
+        where ct.member.id = mc.member.id
+          and ct.fitnessService.id = mc.fitnessService.id
+          and ct.compacted = false
+    ), 0)
+    from MemberCredit mc
+    where mc.member.id = :memberId
+      and mc.fitnessService.id = :fitnessServiceId
+""")
+    List<Object[]> findVersionAndBalance(@Param("memberId") Long memberId, @Param("fitnessServiceId") Long fitnessServiceId);
+
+    // conditional update: 0 rows means another debit committed since the balance was read
+    @Modifying
+    @Query("""
+    update MemberCredit mc
+    set mc.version = mc.version + 1
     where mc.member.id = :memberId
+      and mc.fitnessService.id = :fitnessServiceId
+      and mc.version = :version
 """)
-    List<MemberCredit> findAllByMemberIdWithService(Long memberId);
-}
\ No newline at end of file
+    int bumpVersion(@Param("memberId") Long memberId,
+                    @Param("fitnessServiceId") Long fitnessServiceId,
+                    @Param("version") Long version);
+}
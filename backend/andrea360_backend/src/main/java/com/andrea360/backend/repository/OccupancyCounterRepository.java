@@ -0,0 +1,174 @@
+package com.andrea360.backend.repository;
+
+import com.andrea360.backend.entity.OccupancyCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OccupancyCounterRepository extends JpaRepository<OccupancyCounter, Long> {
+
+    // Row-locks the sessions in id order before their state rows are touched. Admin updates lock the
+    // session first too, so every writer takes session -> state. NO KEY UPDATE doesn't conflict with the
+    // key-share lock a booking already holds through its reservation's foreign key.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sessions"))
+    @Query(value = "SELECT id FROM sessions WHERE id IN (:sessionIds) ORDER BY id FOR NO KEY UPDATE", nativeQuery = true)
+    List<Long> lockSessions(@Param("sessionIds") Collection<Long> sessionIds);
+
+    // creates the state rows if needed and row-locks them in id order, so two changes of one session
+    // apply one after the other and two overlapping batches can't deadlock
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "occupancy_session_states"))
+    @Query(value = """
+        INSERT INTO occupancy_session_states (session_id, capacity, booked)
+        SELECT DISTINCT CAST(k AS BIGINT), 0, 0 FROM unnest(ARRAY[:sessionIds]) AS k
+        ORDER BY 1
+        ON CONFLICT (session_id) DO UPDATE SET session_id = EXCLUDED.session_id
+        """, nativeQuery = true)
+    int lockSessionStates(@Param("sessionIds") Collection<Long> sessionIds);
+
+    // Re-derives the sessions' contribution from sessions/reservations, moves the difference to the
+    // old and new buckets and stores the new contribution, in one statement for all of them.
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "occupancy_counters"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "occupancy_session_states")
+    })
+    @Query(value = """
+        WITH keys AS (
+            SELECT DISTINCT CAST(k AS BIGINT) AS session_id FROM unnest(ARRAY[:sessionIds]) AS k
+        ),
+        cur AS (
+            SELECT s.id AS session_id, s.fitness_service_id, s.trainer_employee_id, s.location_id,
+                   CAST((EXTRACT(ISODOW FROM s.starts_at AT TIME ZONE :zone) - 1) * 24
+                        + EXTRACT(HOUR FROM s.starts_at AT TIME ZONE :zone) AS SMALLINT) AS hour_of_week,
+                   s.capacity,
+                   (SELECT COUNT(*) FROM reservations r
+                    WHERE r.session_id = s.id AND r.status IN ('CREATED', 'CONFIRMED')) AS booked
+            FROM sessions s
+            JOIN keys ON keys.session_id = s.id
+            WHERE UPPER(s.status) <> 'CANCELLED'
+        ),
+        deltas AS (
+            SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                   -1 AS session_count, -capacity AS capacity, -CAST(booked AS BIGINT) AS booked
+            FROM occupancy_session_states
+            WHERE session_id IN (SELECT session_id FROM keys)
+              AND hour_of_week IS NOT NULL
+            UNION ALL
+            SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                   1, capacity, booked
+            FROM cur
+        ),
+        net AS (
+            SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                   SUM(session_count) AS session_count, SUM(capacity) AS capacity, SUM(booked) AS booked
+            FROM deltas
+            GROUP BY fitness_service_id, trainer_employee_id, location_id, hour_of_week
+            HAVING SUM(session_count) <> 0 OR SUM(capacity) <> 0 OR SUM(booked) <> 0
+        ),
+        counters AS (
+            INSERT INTO occupancy_counters (fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                                            session_count, capacity_total, booked_total)
+            SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                   session_count, capacity, booked
+            FROM net
+            ON CONFLICT (fitness_service_id, trainer_employee_id, location_id, hour_of_week)
+            DO UPDATE SET session_count  = occupancy_counters.session_count + EXCLUDED.session_count,
+                          capacity_total = occupancy_counters.capacity_total + EXCLUDED.capacity_total,
+                          booked_total   = occupancy_counters.booked_total + EXCLUDED.booked_total
+        )
+        UPDATE occupancy_session_states st
+        SET fitness_service_id  = cur.fitness_service_id,
+            trainer_employee_id = cur.trainer_employee_id,
+            location_id         = cur.location_id,
+            hour_of_week        = cur.hour_of_week,
+            capacity            = COALESCE(cur.capacity, 0),
+            booked              = COALESCE(cur.booked, 0)
+        FROM keys k
+        LEFT JOIN cur ON cur.session_id = k.session_id
+        WHERE st.session_id = k.session_id
+        """, nativeQuery = true)
+    int applySessionChanges(@Param("sessionIds") Collection<Long> sessionIds, @Param("zone") String zone);
+
+    // Held until the rebuild commits, like the revenue rollup rebuild: readers go on, incremental
+    // updates already running finish first and new ones wait and apply on top of the result.
+    @Modifying
+    @Query(value = "LOCK TABLE occupancy_session_states, occupancy_counters IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM occupancy_counters", nativeQuery = true)
+    int deleteAllCounters();
+
+    @Modifying
+    @Query(value = "DELETE FROM occupancy_session_states", nativeQuery = true)
+    int deleteAllSessionStates();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO occupancy_session_states (session_id, fitness_service_id, trainer_employee_id, location_id,
+                                              hour_of_week, capacity, booked)
+        SELECT s.id, s.fitness_service_id, s.trainer_employee_id, s.location_id,
+               CAST((EXTRACT(ISODOW FROM s.starts_at AT TIME ZONE :zone) - 1) * 24
+                    + EXTRACT(HOUR FROM s.starts_at AT TIME ZONE :zone) AS SMALLINT),
+               s.capacity,
+               (SELECT COUNT(*) FROM reservations r
+                WHERE r.session_id = s.id AND r.status IN ('CREATED', 'CONFIRMED'))
+        FROM sessions s
+        WHERE UPPER(s.status) <> 'CANCELLED'
+        """, nativeQuery = true)
+    int rebuildSessionStates(@Param("zone") String zone);
+
+    // live sessions from their states, archived ones straight from the archive tables
+    @Modifying
+    @Query(value = """
+        INSERT INTO occupancy_counters (fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                                        session_count, capacity_total, booked_total)
+        SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+               COUNT(*), SUM(capacity), SUM(booked)
+        FROM (
+            SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                   capacity, CAST(booked AS BIGINT) AS booked
+            FROM occupancy_session_states
+            WHERE hour_of_week IS NOT NULL
+            UNION ALL
+            SELECT sa.fitness_service_id, sa.trainer_employee_id, sa.location_id,
+                   CAST((EXTRACT(ISODOW FROM sa.starts_at AT TIME ZONE :zone) - 1) * 24
+                        + EXTRACT(HOUR FROM sa.starts_at AT TIME ZONE :zone) AS SMALLINT),
+                   sa.capacity,
+                   (SELECT COUNT(*) FROM reservations_archive ra
+                    WHERE ra.session_id = sa.id
+                      AND ra.session_starts_at = sa.starts_at
+                      AND ra.status IN ('CREATED', 'CONFIRMED'))
+            FROM sessions_archive sa
+            WHERE UPPER(sa.status) <> 'CANCELLED'
+        ) x
+        GROUP BY fitness_service_id, trainer_employee_id, location_id, hour_of_week
+        """, nativeQuery = true)
+    int rebuildCounters(@Param("zone") String zone);
+
+    // rows: counter, fitnessServiceName, trainerFirstName, trainerLastName, locationName
+    @Query("""
+        select c, fs.name, t.firstName, t.lastName, l.name
+        from OccupancyCounter c
+        join FitnessService fs on fs.id = c.fitnessServiceId
+        join Employee t on t.id = c.trainerId
+        join Location l on l.id = c.locationId
+        where c.sessionCount > 0
+          and (:fitnessServiceId is null or c.fitnessServiceId = :fitnessServiceId)
+          and (:trainerId is null or c.trainerId = :trainerId)
+          and (:locationId is null or c.locationId = :locationId)
+    """)
+    List<Object[]> findCounters(
+            @Param("fitnessServiceId") Long fitnessServiceId,
+            @Param("trainerId") Long trainerId,
+            @Param("locationId") Long locationId
+    );
+}
@@ -1,9 +1,16 @@
 package com.andrea360.backend.repository;
 
 import com.andrea360.backend.entity.Payment;
+import com.andrea360.backend.entity.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -18,4 +25,28 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByIdFull(Long id);
 
     Optional<Payment> findByExternalRef(String externalRef);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Payment p where p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Payment p where p.externalRef = :externalRef")
+    Optional<Payment> findByExternalRefForUpdate(@Param("externalRef") String externalRef);
+
+    // keyset page over Stripe checkout payments (external ref = checkout session id "cs_...")
+    @Query("""
+        select p from Payment p
+        where p.status = :status
+          and p.externalRef like 'cs!_%' escape '!'
+          and p.id > :afterId
+          and p.createdAt < :createdBefore
+        order by p.id asc
+    """)
+    List<Payment> findStripeBatchAfter(
+            @Param("status") PaymentStatus status,
+            @Param("afterId") Long afterId,
+            @Param("createdBefore") OffsetDateTime createdBefore,
+            Pageable pageable
+    );
 }
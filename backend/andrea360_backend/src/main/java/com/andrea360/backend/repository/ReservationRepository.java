@@ -2,17 +2,23 @@ package com.andrea360.backend.repository;
 
 import com.andrea360.backend.entity.Reservation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     boolean existsByMemberIdAndSessionIdAndStatusIn(Long memberId, Long sessionId, Collection<String> statuses);
 
     long countBySessionIdAndStatusIn(Long sessionId, Collection<String> statuses);
+
+    Optional<Reservation> findByMemberIdAndSessionId(Long memberId, Long sessionId);
+
     @Query("""
         select r.session.id as sessionId, count(r.id) as cnt
         from Reservation r
@@ -33,4 +39,51 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     """)
     List<Reservation> findAllByMemberIdWithDetails(@Param("memberId") Long memberId);
 
-}
\ No newline at end of file
+    // Cancels every active reservation of the session and refunds one credit each, in one statement.
+    // rows: reservationId, memberId, firstName, lastName, email
+    @Query(value = """
+        WITH cancelled AS (
+            UPDATE reservations
+            SET status = 'CANCELLED', cancelled_at = :now, version = version + 1
+            WHERE session_id = :sessionId
+              AND status IN ('CREATED', 'CONFIRMED')
+            RETURNING id, member_id
+        ),
+        snapshot AS (
+            INSERT INTO member_credits (member_id, fitness_service_id, available_credits)
+            SELECT DISTINCT member_id, :fitnessServiceId, 0 FROM cancelled
+            ON CONFLICT (member_id, fitness_service_id) DO NOTHING
+        ),
+        refund AS (
+            INSERT INTO credit_transactions (member_id, fitness_service_id, delta, type, reference_id, compacted, created_at)
+            SELECT member_id, :fitnessServiceId, 1, 'SESSION_CANCELLED', id, FALSE, :now FROM cancelled
+        )
+        SELECT c.id, m.id, m.first_name, m.last_name, m.email
+        FROM cancelled c
+        JOIN members m ON m.id = c.member_id
+        ORDER BY m.last_name, m.first_name
+        """, nativeQuery = true)
+    List<Object[]> cancelActiveForSessionWithRefund(
+            @Param("sessionId") Long sessionId,
+            @Param("fitnessServiceId") Long fitnessServiceId,
+            @Param("now") OffsetDateTime now
+    );
+
+    @Modifying
+    @Query("delete from Reservation r where r.session.id = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+
+    // history of reservations whose sessions were archived (see SessionRepository.archiveEndedBefore)
+    // rows: id, memberId, firstName, lastName, sessionId, sessionStartsAt, paymentId, paymentStatus,
+    //       status, createdAt, cancelledAt, note
+    @Query(value = """
+        SELECT ra.id, ra.member_id, m.first_name, m.last_name, ra.session_id, ra.session_starts_at,
+               ra.payment_id, p.status, ra.status, ra.created_at, ra.cancelled_at, ra.note
+        FROM reservations_archive ra
+        JOIN members m ON m.id = ra.member_id
+        LEFT JOIN payments p ON p.id = ra.payment_id
+        WHERE ra.member_id = :memberId
+        ORDER BY ra.session_starts_at DESC
+        """, nativeQuery = true)
+    List<Object[]> findArchivedByMemberId(@Param("memberId") Long memberId);
+}
@@ -0,0 +1,91 @@
+package com.andrea360.backend.repository;
+
+import com.andrea360.backend.entity.RevenueRollup;
+import com.andrea360.backend.entity.enums.RevenuePeriod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    // adds one paid payment to its day and month buckets in a single statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revenue_rollups"))
+    @Query(value = """
+        INSERT INTO revenue_rollups (period_type, period_start, location_id, fitness_service_id, currency,
+                                     amount_total, quantity_total, payment_count)
+        SELECT b.period_type, b.period_start, fs.location_id, fs.id, :currency, :amount, :quantity, 1
+        FROM fitness_services fs
+        CROSS JOIN (VALUES ('DAY', CAST(:day AS date)), ('MONTH', CAST(:month AS date))) AS b(period_type, period_start)
+        WHERE fs.id = :fitnessServiceId
+        ON CONFLICT (period_type, period_start, location_id, fitness_service_id, currency)
+        DO UPDATE SET amount_total   = revenue_rollups.amount_total + EXCLUDED.amount_total,
+                      quantity_total = revenue_rollups.quantity_total + EXCLUDED.quantity_total,
+                      payment_count  = revenue_rollups.payment_count + EXCLUDED.payment_count
+        """, nativeQuery = true)
+    int addPaid(
+            @Param("fitnessServiceId") Long fitnessServiceId,
+            @Param("currency") String currency,
+            @Param("day") LocalDate day,
+            @Param("month") LocalDate month,
+            @Param("amount") BigDecimal amount,
+            @Param("quantity") int quantity
+    );
+
+    // Held until the rebuild commits. Doesn't block readers; addPaid calls already running finish
+    // first (so the rebuild sees their payments) and new ones wait and add on top of the result.
+    @Modifying
+    @Query(value = "LOCK TABLE revenue_rollups IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM revenue_rollups", nativeQuery = true)
+    int deleteAllRollups();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO revenue_rollups (period_type, period_start, location_id, fitness_service_id, currency,
+                                     amount_total, quantity_total, payment_count)
+        SELECT b.period_type, b.period_start, fs.location_id, p.fitness_service_id, p.currency,
+               SUM(p.amount), SUM(p.quantity), COUNT(*)
+        FROM payments p
+        JOIN fitness_services fs ON fs.id = p.fitness_service_id
+        CROSS JOIN LATERAL (VALUES
+            ('DAY',   CAST(date_trunc('day',   COALESCE(p.paid_at, p.created_at) AT TIME ZONE :zone) AS date)),
+            ('MONTH', CAST(date_trunc('month', COALESCE(p.paid_at, p.created_at) AT TIME ZONE :zone) AS date))
+        ) AS b(period_type, period_start)
+        WHERE p.status = 'PAID'
+        GROUP BY b.period_type, b.period_start, fs.location_id, p.fitness_service_id, p.currency
+        ON CONFLICT (period_type, period_start, location_id, fitness_service_id, currency)
+        DO UPDATE SET amount_total   = EXCLUDED.amount_total,
+                      quantity_total = EXCLUDED.quantity_total,
+                      payment_count  = EXCLUDED.payment_count
+        """, nativeQuery = true)
+    int rebuildFromPayments(@Param("zone") String zone);
+
+    // rows: rollup, locationName, fitnessServiceName
+    @Query("""
+        select r, l.name, fs.name
+        from RevenueRollup r
+        join Location l on l.id = r.locationId
+        join FitnessService fs on fs.id = r.fitnessServiceId
+        where r.periodType = :periodType
+          and r.periodStart between :from and :to
+          and (:locationId is null or r.locationId = :locationId)
+        order by r.periodStart asc, l.name asc, fs.name asc
+    """)
+    List<Object[]> findRollups(
+            @Param("periodType") RevenuePeriod periodType,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("locationId") Long locationId
+    );
+}
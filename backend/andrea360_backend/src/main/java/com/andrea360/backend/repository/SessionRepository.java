@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,7 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
         from Session s
         where s.trainer.id = :trainerId
           and s.id <> coalesce(:excludeId, -1)
+          and upper(s.status) <> 'CANCELLED'
           and s.startsAt < :endsAt
           and s.endsAt > :startsAt
     """)
@@ -29,10 +31,106 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
             @Param("excludeId") Long excludeId
     );
 
+    // rows: id, startsAt, endsAt
+    @Query("""
+        select s.id, s.startsAt, s.endsAt
+        from Session s
+        where s.trainer.id = :trainerId
+          and upper(s.status) <> 'CANCELLED'
+          and s.startsAt < :to
+          and s.endsAt > :from
+    """)
+    List<Object[]> findTrainerIntervals(
+            @Param("trainerId") Long trainerId,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
+    // Trainer agenda: one row per active reservation, or one row with null reservation columns
+    // for a session nobody booked. Ordered so rows of a session are adjacent.
+    // rows: sessionId, startsAt, endsAt, capacity, status, fitnessServiceId, fitnessServiceName,
+    //       locationId, locationName, reservationId, reservationStatus, memberId, firstName, lastName, phone
+    @Query("""
+        select s.id, s.startsAt, s.endsAt, s.capacity, s.status, fs.id, fs.name, l.id, l.name,
+               r.id, r.status, m.id, m.firstName, m.lastName, m.phone
+        from Session s
+        join s.fitnessService fs
+        join s.location l
+        left join Reservation r on r.session = s and r.status in :activeStatuses
+        left join r.member m
+        where s.trainer.id = :trainerId
+          and s.startsAt < :to
+          and s.endsAt > :from
+        order by s.startsAt asc, s.id asc, m.lastName asc, m.firstName asc
+    """)
+    List<Object[]> findTrainerAgendaRows(
+            @Param("trainerId") Long trainerId,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to,
+            @Param("activeStatuses") Collection<String> activeStatuses
+    );
+
+    // rows: id, trainerId, startsAt, endsAt
+    @Query("""
+        select s.id, s.trainer.id, s.startsAt, s.endsAt
+        from Session s
+        where s.endsAt > :from
+          and upper(s.status) <> 'CANCELLED'
+    """)
+    List<Object[]> findIndexableAfter(@Param("from") OffsetDateTime from);
+
+    // same row shape as findIndexableAfter, empty when the session is gone or cancelled
+    @Query("""
+        select s.id, s.trainer.id, s.startsAt, s.endsAt
+        from Session s
+        where s.id = :id
+          and upper(s.status) <> 'CANCELLED'
+    """)
+    List<Object[]> findIndexableById(@Param("id") Long id);
+
+    // rows: id, startsAt, endsAt, capacity, status, serviceId, serviceName,
+    //       trainerId, trainerFirstName, trainerLastName, locationId, locationName, booked
+    @Query("""
+        select s.id, s.startsAt, s.endsAt, s.capacity, s.status,
+               fs.id, fs.name,
+               t.id, t.firstName, t.lastName,
+               l.id, l.name,
+               (select count(r) from Reservation r
+                where r.session.id = s.id and r.status in ('CREATED', 'CONFIRMED'))
+        from Session s
+        join s.fitnessService fs
+        join s.trainer t
+        join s.location l
+        where (:locationId is null or l.id = :locationId)
+          and s.startsAt >= :from
+          and s.startsAt < :to
+        order by s.startsAt asc, s.id asc
+    """)
+    List<Object[]> findWeekRows(
+            @Param("locationId") Long locationId,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select s from Session s where s.id = :id")
     Optional<Session> findByIdForUpdate(@Param("id") Long id);
 
+    // rows: id, locationId, startsAt, status, capacity, booked
+    @Query("""
+        select s.id, s.location.id, s.startsAt, s.status, s.capacity,
+               (select count(r) from Reservation r where r.session = s and r.status in :activeStatuses)
+        from Session s
+        where s.id in :ids
+    """)
+    List<Object[]> findSeatStates(@Param("ids") Collection<Long> ids, @Param("activeStatuses") Collection<String> activeStatuses);
+
+    // Booking path: no row lock, the version is bumped with "where version = ?" before commit,
+    // so two bookings counted against the same seats can't both commit.
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select s from Session s where s.id = :id")
+    Optional<Session> findByIdForBooking(@Param("id") Long id);
+
     @Query("""
         select s
         from Session s
@@ -60,10 +158,11 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
         join fetch s.location
         join fetch s.fitnessService fs
         where lower(s.status) = 'scheduled'
-          and function('date', s.startsAt) = :date
+          and s.startsAt >= :from
+          and s.startsAt < :to
         order by s.startsAt asc
     """)
-    List<Session> findScheduledForMemberBookingByDate(@Param("date") LocalDate date);
+    List<Session> findScheduledForMemberBookingByDate(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 
     @Query("""
         select s
@@ -72,11 +171,82 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
         join fetch s.fitnessService fs
         where lower(s.status) = 'scheduled'
           and fs.id = :fitnessServiceId
-          and function('date', s.startsAt) = :date
+          and s.startsAt >= :from
+          and s.startsAt < :to
         order by s.startsAt asc
     """)
     List<Session> findScheduledForMemberBookingByServiceAndDate(
             @Param("fitnessServiceId") Long fitnessServiceId,
-            @Param("date") LocalDate date
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
+    @Query("select min(s.startsAt) from Session s where s.endsAt < :cutoff")
+    OffsetDateTime findOldestStartEndedBefore(@Param("cutoff") OffsetDateTime cutoff);
+
+    @Query(value = "SELECT ensure_archive_partitions(:fromTs, :toTs)", nativeQuery = true)
+    Integer ensureArchivePartitions(@Param("fromTs") OffsetDateTime fromTs, @Param("toTs") OffsetDateTime toTs);
+
+    @Query(value = "SELECT detach_archive_partitions(:beforeTs)", nativeQuery = true)
+    Integer detachArchivePartitions(@Param("beforeTs") OffsetDateTime beforeTs);
+
+    // Moves one batch of sessions that ended before the cutoff, with their reservations, into the
+    // archive tables and drops their waitlist entries, in one statement (FKs are checked at its end).
+    // rows: locationId, sessions moved, reservations moved
+    @Query(value = """
+        WITH victims AS (
+            SELECT id
+            FROM sessions
+            WHERE ends_at < :cutoff
+            ORDER BY ends_at
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+        ),
+        dropped_waitlist AS (
+            DELETE FROM waitlist_entries w
+            USING victims v
+            WHERE w.session_id = v.id
+        ),
+        -- counters keep the archived sessions, only the per-session bookkeeping goes
+        dropped_occupancy AS (
+            DELETE FROM occupancy_session_states o
+            USING victims v
+            WHERE o.session_id = v.id
+        ),
+        moved_sessions AS (
+            DELETE FROM sessions s
+            USING victims v
+            WHERE s.id = v.id
+            RETURNING s.id, s.starts_at, s.ends_at, s.capacity, s.status,
+                      s.location_id, s.fitness_service_id, s.trainer_employee_id
+        ),
+        archived_sessions AS (
+            INSERT INTO sessions_archive (id, starts_at, ends_at, capacity, status,
+                                          location_id, fitness_service_id, trainer_employee_id, archived_at)
+            SELECT id, starts_at, ends_at, capacity, status,
+                   location_id, fitness_service_id, trainer_employee_id, :now
+            FROM moved_sessions
+        ),
+        moved_reservations AS (
+            DELETE FROM reservations r
+            USING moved_sessions ms
+            WHERE r.session_id = ms.id
+            RETURNING r.id, r.member_id, r.session_id, ms.starts_at, r.payment_id,
+                      r.status, r.created_at, r.cancelled_at, r.note
+        ),
+        archived_reservations AS (
+            INSERT INTO reservations_archive (id, member_id, session_id, session_starts_at, payment_id,
+                                              status, created_at, cancelled_at, note)
+            SELECT * FROM moved_reservations
+        )
+        SELECT ms.location_id, count(DISTINCT ms.id), count(mr.id)
+        FROM moved_sessions ms
+        LEFT JOIN moved_reservations mr ON mr.session_id = ms.id
+        GROUP BY ms.location_id
+        """, nativeQuery = true)
+    List<Object[]> archiveEndedBefore(
+            @Param("cutoff") OffsetDateTime cutoff,
+            @Param("batchSize") int batchSize,
+            @Param("now") OffsetDateTime now
     );
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.andrea360.backend.repository;
+
+import com.andrea360.backend.entity.StripePrice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StripePriceRepository extends JpaRepository<StripePrice, Long> {
+
+    @Query("""
+    select sp.stripePriceId
+    from StripePrice sp
+    where sp.fitnessService.id = :fitnessServiceId
+      and sp.currency = :currency
+      and sp.unitAmount = :unitAmount
+""")
+    Optional<String> findPriceId(
+            @Param("fitnessServiceId") Long fitnessServiceId,
+            @Param("currency") String currency,
+            @Param("unitAmount") long unitAmount
+    );
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stripe_prices"))
+    @Query(value = """
+    INSERT INTO stripe_prices (fitness_service_id, currency, unit_amount, stripe_price_id, created_at)
+    VALUES (:fitnessServiceId, :currency, :unitAmount, :stripePriceId, now())
+    ON CONFLICT (fitness_service_id, currency, unit_amount) DO NOTHING
+""", nativeQuery = true)
+    int insertIfMissing(
+            @Param("fitnessServiceId") Long fitnessServiceId,
+            @Param("currency") String currency,
+            @Param("unitAmount") long unitAmount,
+            @Param("stripePriceId") String stripePriceId
+    );
+}
@@ -0,0 +1,49 @@
+package com.andrea360.backend.repository;
+
+import com.andrea360.backend.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    boolean existsBySessionIdAndMemberId(Long sessionId, Long memberId);
+
+    Optional<WaitlistEntry> findFirstBySessionIdOrderByIdAsc(Long sessionId);
+
+    @Query("""
+        select count(w)
+        from WaitlistEntry w
+        where w.session.id = :sessionId
+          and w.id <= :entryId
+    """)
+    long positionOf(@Param("sessionId") Long sessionId, @Param("entryId") Long entryId);
+
+    // rows: entry, position
+    @Query("""
+        select w, (
+            select count(w2)
+            from WaitlistEntry w2
+            where w2.session.id = w.session.id
+              and w2.id <= w.id
+        )
+        from WaitlistEntry w
+        join fetch w.session s
+        join fetch s.fitnessService
+        where w.member.id = :memberId
+        order by s.startsAt asc
+    """)
+    List<Object[]> findByMemberIdWithPosition(@Param("memberId") Long memberId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.session.id = :sessionId and w.member.id = :memberId")
+    int deleteBySessionIdAndMemberId(@Param("sessionId") Long sessionId, @Param("memberId") Long memberId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.session.id = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+}
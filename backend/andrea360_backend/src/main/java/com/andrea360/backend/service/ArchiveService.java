@@ -0,0 +1,8 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.archive.ArchiveRunResponse;
+
+public interface ArchiveService {
+
+    ArchiveRunResponse archiveEnded();
+}
@@ -0,0 +1,8 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.cache.CacheStatsResponse;
+
+public interface CacheStatsService {
+
+    CacheStatsResponse getStats();
+}
@@ -1,13 +1,17 @@
 package com.andrea360.backend.service;
 
-import com.andrea360.backend.entity.MemberCredit;
+import com.andrea360.backend.entity.enums.CreditTransactionType;
 
 public interface MemberCreditService {
-    MemberCredit getOrCreate(Long memberId, Long fitnessServiceId);
+    int getBalance(Long memberId, Long fitnessServiceId);
 
-    void addCredits(Long memberId, Long fitnessServiceId, int amount);
+    void addCredits(Long memberId, Long fitnessServiceId, int amount, CreditTransactionType type, Long referenceId);
 
-    void consumeCredits(Long memberId, Long fitnessServiceId, int amount);
+    void consumeCredits(Long memberId, Long fitnessServiceId, int amount, CreditTransactionType type, Long referenceId);
 
-    void consumeCredit(Long memberId, Long fitnessServiceId);
-}
\ No newline at end of file
+    void consumeCredit(Long memberId, Long fitnessServiceId, Long reservationId);
+
+    boolean tryConsumeCredit(Long memberId, Long fitnessServiceId, Long reservationId);
+
+    int compactLedger();
+}
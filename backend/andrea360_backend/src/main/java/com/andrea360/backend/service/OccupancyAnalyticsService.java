@@ -0,0 +1,17 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.analytics.OccupancyResponse;
+import com.andrea360.backend.entity.enums.OccupancyDimension;
+
+import java.util.Collection;
+
+public interface OccupancyAnalyticsService {
+
+    void recordSessionChange(Long sessionId);
+
+    void recordSessionChanges(Collection<Long> sessionIds);
+
+    OccupancyResponse getOccupancy(OccupancyDimension groupBy, Long fitnessServiceId, Long trainerId, Long locationId);
+
+    int rebuild();
+}
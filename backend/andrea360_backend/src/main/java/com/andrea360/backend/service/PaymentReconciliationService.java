@@ -0,0 +1,10 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.stripe.StripeReconciliationResponse;
+
+public interface PaymentReconciliationService {
+
+    void startReconcile();
+
+    StripeReconciliationResponse lastReconciliation();
+}
@@ -6,6 +6,7 @@ import com.andrea360.backend.dto.payment.UpdatePaymentRequest;
 import com.andrea360.backend.dto.stripe.CreateCheckoutSessionRequest;
 import com.andrea360.backend.dto.stripe.CreateCheckoutSessionResponse;
 import com.andrea360.backend.entity.Payment;
+import com.andrea360.backend.entity.enums.PaymentStatus;
 import com.stripe.model.checkout.Session;
 
 import java.util.List;
@@ -30,8 +31,12 @@ public interface PaymentService {
             Long memberId
     );
 
-    void markPaidFromStripe(Payment payment, Session session);
+    void markPaidFromStripe(Long paymentId, Session session);
 
     PaymentResponse confirmStripeCheckout(String sessionId);
 
+    PaymentStatus applyStripeSession(Long paymentId, Session session);
+
+    List<Long> findLedgerMismatches();
+
 }
\ No newline at end of file
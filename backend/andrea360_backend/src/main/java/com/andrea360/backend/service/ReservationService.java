@@ -23,4 +23,6 @@ public interface ReservationService {
     void delete(Long id);
     List<ReservationResponse> getMyReservations(Long memberId);
 
+    List<ReservationResponse> getMyArchivedReservations(Long memberId);
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.report.RevenueRollupResponse;
+import com.andrea360.backend.entity.Payment;
+import com.andrea360.backend.entity.enums.RevenuePeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RevenueReportService {
+
+    void recordPaid(Payment payment);
+
+    List<RevenueRollupResponse> getRevenue(RevenuePeriod period, LocalDate from, LocalDate to, Long locationId);
+
+    int rebuild();
+}
@@ -0,0 +1,14 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.schedule.WeekScheduleResponse;
+
+import java.time.LocalDate;
+
+public interface ScheduleService {
+
+    LocalDate weekStart(LocalDate anyDay);
+
+    String weekEtag(Long locationId, LocalDate weekStart);
+
+    WeekScheduleResponse getWeek(Long locationId, LocalDate weekStart);
+}
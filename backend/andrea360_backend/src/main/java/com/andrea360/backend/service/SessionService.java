@@ -1,7 +1,10 @@
 package com.andrea360.backend.service;
 
 import com.andrea360.backend.dto.session.CreateSessionRequest;
+import com.andrea360.backend.dto.session.CreateSessionSeriesRequest;
+import com.andrea360.backend.dto.session.SessionCancellationResponse;
 import com.andrea360.backend.dto.session.SessionResponse;
+import com.andrea360.backend.dto.session.SessionSeriesResponse;
 import com.andrea360.backend.dto.session.UpdateSessionRequest;
 
 import java.util.List;
@@ -10,11 +13,15 @@ public interface SessionService {
 
     SessionResponse create(CreateSessionRequest request);
 
+    SessionSeriesResponse createSeries(CreateSessionSeriesRequest request);
+
     SessionResponse update(Long id, UpdateSessionRequest request);
 
     SessionResponse getById(Long id);
 
     List<SessionResponse> getAll();
 
+    SessionCancellationResponse cancel(Long id);
+
     void delete(Long id);
 }
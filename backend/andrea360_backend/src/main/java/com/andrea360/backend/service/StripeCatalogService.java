@@ -0,0 +1,10 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.entity.FitnessService;
+
+public interface StripeCatalogService {
+
+    String resolvePriceId(FitnessService fitnessService, String currency);
+
+    void refresh(FitnessService fitnessService, boolean priceChanged, boolean nameChanged);
+}
@@ -0,0 +1,10 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.trace.RouteTracesResponse;
+
+import java.util.List;
+
+public interface TraceService {
+
+    List<RouteTracesResponse> getSlowest(String route, int limit);
+}
@@ -0,0 +1,14 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.trainer.FreeSlotResponse;
+import com.andrea360.backend.dto.trainer.TrainerAgendaResponse;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface TrainerScheduleService {
+
+    List<FreeSlotResponse> getFreeSlots(Long trainerId, OffsetDateTime from, OffsetDateTime to, int minMinutes);
+
+    TrainerAgendaResponse getAgenda(Long trainerId, OffsetDateTime from, OffsetDateTime to);
+}
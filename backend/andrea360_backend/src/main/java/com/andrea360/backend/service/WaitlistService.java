@@ -0,0 +1,16 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.waitlist.WaitlistEntryResponse;
+
+import java.util.List;
+
+public interface WaitlistService {
+
+    WaitlistEntryResponse join(Long memberId, Long sessionId);
+
+    void leave(Long memberId, Long sessionId);
+
+    List<WaitlistEntryResponse> getMyEntries(Long memberId);
+
+    int promote(Long sessionId);
+}
@@ -0,0 +1,33 @@
+package com.andrea360.backend.service.analytics;
+
+import com.andrea360.backend.event.SessionChangedEvent;
+import com.andrea360.backend.event.SessionsChangedEvent;
+import com.andrea360.backend.service.OccupancyAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Feeds the occupancy counters from booking, cancel and session changes. Runs before commit,
+// so the counters commit or roll back together with the change that moved them. First among the
+// before-commit listeners, so its session -> state locks are the first rows it adds to the transaction.
+@Component
+@RequiredArgsConstructor
+public class OccupancyListener {
+
+    private final OccupancyAnalyticsService occupancyAnalyticsService;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSessionChanged(SessionChangedEvent event) {
+        occupancyAnalyticsService.recordSessionChange(event.sessionId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSessionsChanged(SessionsChangedEvent event) {
+        occupancyAnalyticsService.recordSessionChanges(event.sessionIds());
+    }
+}
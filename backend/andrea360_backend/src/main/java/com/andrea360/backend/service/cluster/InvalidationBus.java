@@ -0,0 +1,344 @@
+package com.andrea360.backend.service.cluster;
+
+import com.andrea360.backend.event.ClusterInvalidationEvent;
+import com.andrea360.backend.event.ClusterResyncEvent;
+import com.andrea360.backend.event.EmployeeChangedEvent;
+import com.andrea360.backend.event.FitnessServiceChangedEvent;
+import com.andrea360.backend.event.LocationChangedEvent;
+import com.andrea360.backend.event.PaymentPaidEvent;
+import com.andrea360.backend.event.SessionChangedEvent;
+import com.andrea360.backend.event.SessionsChangedEvent;
+import com.andrea360.backend.event.WaitlistPromotedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Spreads committed entity changes to the other backend nodes through Postgres LISTEN/NOTIFY.
+// NOTIFY is sent after the writing transaction committed, on a connection of its own, so
+// rolled-back changes (booking version conflicts included) never take a sequence number. A node
+// that dies between commit and NOTIFY loses that message; its peers see a new node id once it is
+// back. Every message carries this node's id and a per-node sequence number;
+// receivers re-publish it as a ClusterInvalidationEvent and fall back to a ClusterResyncEvent
+// when a hole in a sender's sequence doesn't fill within the grace period, or after the listen
+// connection was lost.
+//
+// Payload: nodeId|seq|KIND|id|locationId (id and locationId may be empty; id is a comma-separated
+// list for a session series)
+@Component
+@RequiredArgsConstructor
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+    // ids of up to 19 digits keep a message well under the 8000-byte NOTIFY payload limit
+    private static final int MAX_IDS_PER_MESSAGE = 300;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${cluster.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cluster.invalidation.channel:andrea360_invalidation}")
+    private String channel;
+
+    @Value("${cluster.invalidation.gapGraceMs:2000}")
+    private long gapGraceMs;
+
+    @Value("${cluster.invalidation.reconnectDelayMs:1000}")
+    private long reconnectDelayMs;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+
+    // only touched by the listener thread
+    private final Map<String, SenderState> senders = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread listener;
+    private Connection notifyConnection; // guarded by this
+
+    private static final class SenderState {
+        long contiguous;                            // every seq up to here was received
+        final TreeSet<Long> ahead = new TreeSet<>(); // received past a hole
+        long holeSince;                             // when the current hole opened, 0 if none
+    }
+
+    // ---- outbound ----
+
+    // After commit: behind every before-commit listener by phase, and only for changes that committed.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        send(ClusterInvalidationEvent.Kind.SESSION, event.sessionId(), event.locationId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionsChanged(SessionsChangedEvent event) {
+        List<Long> ids = event.sessionIds();
+        List<String> idLists = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_MESSAGE) {
+            idLists.add(ids.subList(i, Math.min(i + MAX_IDS_PER_MESSAGE, ids.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+        sendAll(ClusterInvalidationEvent.Kind.SESSION, idLists, event.locationId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFitnessServiceChanged(FitnessServiceChangedEvent event) {
+        send(ClusterInvalidationEvent.Kind.FITNESS_SERVICE, event.fitnessServiceId(), event.locationId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocationChanged(LocationChangedEvent event) {
+        send(ClusterInvalidationEvent.Kind.LOCATION, event.locationId(), event.locationId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        send(ClusterInvalidationEvent.Kind.EMPLOYEE, event.employeeId(), event.locationId());
+    }
+
+    // the member's stream may be open on another node, which looks the rest up by id
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPaymentPaid(PaymentPaidEvent event) {
+        send(ClusterInvalidationEvent.Kind.PAYMENT, event.paymentId(), null);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onWaitlistPromoted(WaitlistPromotedEvent event) {
+        send(ClusterInvalidationEvent.Kind.RESERVATION, event.reservationId(), null);
+    }
+
+    private void send(ClusterInvalidationEvent.Kind kind, Long id, Long locationId) {
+        sendAll(kind, List.of(id == null ? "" : String.valueOf(id)), locationId);
+    }
+
+    // One statement for all messages of a batch. Synchronized, so numbers go out in order; the
+    // caller may still hold its transaction's pooled connection, so this never waits for a pool slot.
+    private synchronized void sendAll(ClusterInvalidationEvent.Kind kind, List<String> ids, Long locationId) {
+        if (!enabled || ids.isEmpty()) return;
+
+        String[] payloads = ids.stream().map(id -> payload(kind, id, locationId)).toArray(String[]::new);
+        try {
+            if (notifyConnection == null || notifyConnection.isClosed()) {
+                notifyConnection = DriverManager.getConnection(url, username, password);
+            }
+            try (PreparedStatement st = notifyConnection.prepareStatement("select pg_notify(?, p) from unnest(?) p")) {
+                st.setString(1, channel);
+                st.setArray(2, notifyConnection.createArrayOf("text", payloads));
+                st.executeQuery().close();
+            }
+        } catch (SQLException e) {
+            // the numbers are taken, peers see the hole and resync
+            log.warn("Sending invalidation {} {} failed: {}", kind, ids, e.getMessage());
+            closeNotifyConnection();
+        }
+    }
+
+    private void closeNotifyConnection() {
+        if (notifyConnection == null) return;
+        try {
+            notifyConnection.close();
+        } catch (SQLException ignored) {
+            // already broken
+        }
+        notifyConnection = null;
+    }
+
+    private String payload(ClusterInvalidationEvent.Kind kind, String id, Long locationId) {
+        return nodeId + "|" + sequence.incrementAndGet() + "|" + kind.name()
+                + "|" + id + "|" + (locationId == null ? "" : locationId);
+    }
+
+    // ---- inbound ----
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Invalidation bus listening on '{}' as node {}", channel, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) listener.interrupt();
+        synchronized (this) {
+            closeNotifyConnection();
+        }
+    }
+
+    private void listen() {
+        long delay = reconnectDelayMs;
+        boolean reconnect = false;
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+
+                if (reconnect) {
+                    // whatever other nodes sent while we were away is gone
+                    resync("listen connection re-established");
+                }
+                reconnect = true;
+                delay = reconnectDelayMs;
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification n : notifications) {
+                            receive(n.getParameter());
+                        }
+                    }
+                    checkHoles();
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                log.warn("Invalidation listener connection lost, retrying in {} ms: {}", delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 5) {
+            log.warn("Ignoring malformed invalidation '{}'", payload);
+            return;
+        }
+        if (nodeId.equals(parts[0])) return;
+
+        List<ClusterInvalidationEvent> events = new ArrayList<>();
+        long seq;
+        try {
+            seq = Long.parseLong(parts[1]);
+            ClusterInvalidationEvent.Kind kind = ClusterInvalidationEvent.Kind.valueOf(parts[2]);
+            Long locationId = parts[4].isEmpty() ? null : Long.valueOf(parts[4]);
+            if (parts[3].isEmpty()) {
+                events.add(new ClusterInvalidationEvent(kind, null, locationId));
+            } else {
+                for (String id : parts[3].split(",")) {
+                    events.add(new ClusterInvalidationEvent(kind, Long.valueOf(id), locationId));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed invalidation '{}'", payload);
+            return;
+        }
+
+        track(parts[0], seq);
+
+        // invalidations are idempotent, late or repeated ones are simply applied again
+        try {
+            events.forEach(eventPublisher::publishEvent);
+        } catch (Exception e) {
+            log.warn("Applying invalidation '{}' failed", payload, e);
+        }
+    }
+
+    private void track(String sender, long seq) {
+        SenderState state = senders.get(sender);
+        if (state == null) {
+            // first message of a node that may have started long before us
+            state = new SenderState();
+            state.contiguous = seq - 1;
+            senders.put(sender, state);
+        }
+
+        if (seq == state.contiguous + 1) {
+            state.contiguous = seq;
+            while (state.ahead.remove(state.contiguous + 1)) {
+                state.contiguous++;
+            }
+            state.holeSince = state.ahead.isEmpty() ? 0 : System.currentTimeMillis();
+        } else if (seq > state.contiguous + 1) {
+            // transactions commit out of sequence order, so a hole usually fills within milliseconds
+            state.ahead.add(seq);
+            if (state.holeSince == 0) state.holeSince = System.currentTimeMillis();
+        }
+    }
+
+    private void checkHoles() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, SenderState> e : senders.entrySet()) {
+            SenderState state = e.getValue();
+            if (state.holeSince != 0 && now - state.holeSince > gapGraceMs) {
+                resync("sequence gap from node " + e.getKey() + " after " + state.contiguous);
+                return;
+            }
+        }
+    }
+
+    private void resync(String reason) {
+        // a full refresh covers everything received so far, start every sender from its latest number
+        for (SenderState state : senders.values()) {
+            if (!state.ahead.isEmpty()) state.contiguous = state.ahead.last();
+            state.ahead.clear();
+            state.holeSince = 0;
+        }
+
+        log.info("Invalidation bus resync: {}", reason);
+        try {
+            eventPublisher.publishEvent(new ClusterResyncEvent(reason));
+        } catch (Exception e) {
+            log.warn("Invalidation resync failed", e);
+        }
+    }
+}
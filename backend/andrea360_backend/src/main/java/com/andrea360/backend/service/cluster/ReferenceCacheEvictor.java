@@ -0,0 +1,51 @@
+package com.andrea360.backend.service.cluster;
+
+import com.andrea360.backend.entity.Employee;
+import com.andrea360.backend.entity.FitnessService;
+import com.andrea360.backend.entity.Location;
+import com.andrea360.backend.event.ClusterInvalidationEvent;
+import com.andrea360.backend.event.ClusterResyncEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// The second-level cache is per process. Hibernate keeps it right for writes made on this node;
+// writes of other nodes arrive over the invalidation bus and are evicted here. Query results are
+// dropped wholesale, their staleness check only knows about local writes.
+@Component
+@RequiredArgsConstructor
+public class ReferenceCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onRemoteChange(ClusterInvalidationEvent event) {
+        Class<?> entity = switch (event.kind()) {
+            case FITNESS_SERVICE -> FitnessService.class;
+            case LOCATION -> Location.class;
+            case EMPLOYEE -> Employee.class;
+            case SESSION, PAYMENT, RESERVATION -> null;
+        };
+        if (entity == null) return;
+
+        Cache cache = cache();
+        if (event.id() != null) {
+            cache.evictEntityData(entity, event.id());
+        } else {
+            cache.evictEntityData(entity);
+        }
+        cache.evictDefaultQueryRegion();
+    }
+
+    @EventListener
+    public void onResync(ClusterResyncEvent event) {
+        cache().evictAllRegions();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,106 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.archive.ArchiveRunResponse;
+import com.andrea360.backend.event.SessionChangedEvent;
+import com.andrea360.backend.repository.SessionRepository;
+import com.andrea360.backend.service.ArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    private final SessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.retentionMonths:12}")
+    private int retentionMonths;
+
+    // 0 keeps every archive partition attached
+    @Value("${archive.detachAfterMonths:0}")
+    private int detachAfterMonths;
+
+    @Value("${archive.batchSize:1000}")
+    private int batchSize;
+
+    @Scheduled(
+            initialDelayString = "${archive.initialDelayMs:300000}",
+            fixedDelayString = "${archive.intervalMs:86400000}"
+    )
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ArchiveRunResponse result = archiveEnded();
+            if (result.sessions() > 0 || result.partitionsDetached() > 0) {
+                log.info("Session archival: {}", result);
+            }
+        } catch (Exception e) {
+            log.warn("Session archival run failed", e);
+        }
+    }
+
+    // Every batch commits on its own, so bookings never wait on a long archival transaction.
+    @Override
+    public synchronized ArchiveRunResponse archiveEnded() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime cutoff = now.minusMonths(retentionMonths);
+
+        // partitions up to next month's cutoff exist before the job gets there
+        int created = transactionTemplate.execute(status -> {
+            OffsetDateTime oldest = sessionRepository.findOldestStartEndedBefore(cutoff);
+            return sessionRepository.ensureArchivePartitions(
+                    oldest != null ? oldest : cutoff, cutoff.plusMonths(1));
+        });
+
+        int sessions = 0;
+        int reservations = 0;
+        Set<Long> locationIds = new HashSet<>();
+
+        while (true) {
+            List<Object[]> rows = transactionTemplate.execute(status ->
+                    sessionRepository.archiveEndedBefore(cutoff, batchSize, now));
+            if (rows == null || rows.isEmpty()) break;
+
+            int batchSessions = 0;
+            for (Object[] row : rows) {
+                locationIds.add(((Number) row[0]).longValue());
+                batchSessions += ((Number) row[1]).intValue();
+                reservations += ((Number) row[2]).intValue();
+            }
+            sessions += batchSessions;
+
+            if (batchSessions < batchSize) break;
+        }
+
+        int detached = 0;
+        if (detachAfterMonths > 0) {
+            detached = transactionTemplate.execute(status ->
+                    sessionRepository.detachArchivePartitions(now.minusMonths(detachAfterMonths)));
+        }
+
+        // archived weeks disappear from the schedule view, so their cached ETags must not match anymore
+        locationIds.forEach(id -> eventPublisher.publishEvent(new SessionChangedEvent(null, id)));
+
+        return new ArchiveRunResponse(cutoff, sessions, reservations, created, detached);
+    }
+}
@@ -0,0 +1,53 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.cache.CacheStatsResponse;
+import com.andrea360.backend.service.CacheStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Counters are cumulative since startup, per node.
+@Service
+@RequiredArgsConstructor
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public CacheStatsResponse getStats() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheStatsResponse.Region> regions = new ArrayList<>();
+        for (String name : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = stats.getDomainDataRegionStatistics(name);
+            if (region == null) continue;
+            regions.add(new CacheStatsResponse.Region(
+                    name,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    hitRate(region.getHitCount(), region.getMissCount()),
+                    region.getElementCountInMemory()
+            ));
+        }
+
+        return new CacheStatsResponse(
+                regions,
+                stats.getQueryCacheHitCount(),
+                stats.getQueryCacheMissCount(),
+                hitRate(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()),
+                stats.getPrepareStatementCount()
+        );
+    }
+
+    private static double hitRate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -5,12 +5,14 @@ import com.andrea360.backend.dto.employee.EmployeeResponse;
 import com.andrea360.backend.dto.employee.UpdateEmployeeRequest;
 import com.andrea360.backend.entity.Employee;
 import com.andrea360.backend.entity.Location;
+import com.andrea360.backend.event.EmployeeChangedEvent;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
 import com.andrea360.backend.repository.EmployeeRepository;
 import com.andrea360.backend.repository.LocationRepository;
 import com.andrea360.backend.service.EmployeeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +27,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final EmployeeRepository employeeRepository;
     private final LocationRepository locationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public EmployeeResponse create(CreateEmployeeRequest request) {
@@ -46,6 +49,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         employee.setPasswordHash(passwordEncoder.encode(request.getPassword()));
 
         Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(saved.getId(), location.getId()));
         return mapToResponse(saved);
     }
 
@@ -61,6 +65,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         Location location = locationRepository.findById(request.getLocationId())
                 .orElseThrow(() -> new NotFoundException("Location not found: " + request.getLocationId()));
 
+        Long previousLocationId = existing.getLocation().getId();
         existing.setFirstName(request.getFirstName());
         existing.setLastName(request.getLastName());
         existing.setEmail(request.getEmail());
@@ -69,6 +74,10 @@ public class EmployeeServiceImpl implements EmployeeService {
         existing.setLocation(location);
 
         Employee saved = employeeRepository.save(existing);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id, location.getId()));
+        if (!previousLocationId.equals(location.getId())) {
+            eventPublisher.publishEvent(new EmployeeChangedEvent(id, previousLocationId));
+        }
         return mapToResponse(saved);
     }
 
@@ -92,10 +101,10 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     public void delete(Long id) {
-        if (!employeeRepository.existsById(id)) {
-            throw new NotFoundException("Employee not found: " + id);
-        }
-        employeeRepository.deleteById(id);
+        Employee existing = employeeRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Employee not found: " + id));
+        employeeRepository.delete(existing);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id, existing.getLocation().getId()));
     }
 
     private EmployeeResponse mapToResponse(Employee e) {
@@ -5,12 +5,15 @@ import com.andrea360.backend.dto.fitness_service.FitnessServiceResponse;
 import com.andrea360.backend.dto.fitness_service.UpdateFitnessServiceRequest;
 import com.andrea360.backend.entity.Employee;
 import com.andrea360.backend.entity.FitnessService;
+import com.andrea360.backend.event.FitnessServiceChangedEvent;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
 import com.andrea360.backend.repository.EmployeeRepository;
 import com.andrea360.backend.repository.FitnessServiceRepository;
 import com.andrea360.backend.service.FitnessServiceService;
+import com.andrea360.backend.service.StripeCatalogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +26,8 @@ public class FitnessServiceServiceImpl implements FitnessServiceService {
 
     private final FitnessServiceRepository fitnessServiceRepository;
     private final EmployeeRepository employeeRepository;
+    private final StripeCatalogService stripeCatalogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public FitnessServiceResponse create(CreateFitnessServiceRequest request,String employeeEmail) {
@@ -46,6 +51,7 @@ public class FitnessServiceServiceImpl implements FitnessServiceService {
         service.setActive(request.getActive() == null ? true : request.getActive());
         service.setLocation(e.getLocation());
         FitnessService saved = fitnessServiceRepository.save(service);
+        eventPublisher.publishEvent(new FitnessServiceChangedEvent(saved.getId(), e.getLocation().getId()));
         return mapToResponse(saved);
     }
 
@@ -58,6 +64,10 @@ public class FitnessServiceServiceImpl implements FitnessServiceService {
             throw new BusinessException("Fitness service with same name already exists.");
         }
 
+        boolean priceChanged = existing.getPrice() == null || request.getPrice() == null
+                || existing.getPrice().compareTo(request.getPrice()) != 0;
+        boolean nameChanged = !existing.getName().equals(request.getName());
+
         existing.setName(request.getName());
         existing.setDescription(request.getDescription());
         existing.setDurationMinutes(request.getDurationMinutes());
@@ -65,6 +75,10 @@ public class FitnessServiceServiceImpl implements FitnessServiceService {
         existing.setActive(request.getActive());
 
         FitnessService saved = fitnessServiceRepository.save(existing);
+        if (priceChanged || nameChanged) {
+            stripeCatalogService.refresh(saved, priceChanged, nameChanged);
+        }
+        eventPublisher.publishEvent(new FitnessServiceChangedEvent(saved.getId(), saved.getLocation().getId()));
         return mapToResponse(saved);
     }
 
@@ -88,10 +102,10 @@ public class FitnessServiceServiceImpl implements FitnessServiceService {
 
     @Override
     public void delete(Long id) {
-        if (!fitnessServiceRepository.existsById(id)) {
-            throw new NotFoundException("Fitness service not found: " + id);
-        }
-        fitnessServiceRepository.deleteById(id);
+        FitnessService existing = fitnessServiceRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Fitness service not found: " + id));
+        fitnessServiceRepository.delete(existing);
+        eventPublisher.publishEvent(new FitnessServiceChangedEvent(id, existing.getLocation().getId()));
     }
 
     @Override
@@ -4,11 +4,13 @@ import com.andrea360.backend.dto.location.CreateLocationRequest;
 import com.andrea360.backend.dto.location.LocationResponse;
 import com.andrea360.backend.dto.location.UpdateLocationRequest;
 import com.andrea360.backend.entity.Location;
+import com.andrea360.backend.event.LocationChangedEvent;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
 import com.andrea360.backend.repository.LocationRepository;
 import com.andrea360.backend.service.LocationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,7 @@ import java.util.List;
 public class LocationServiceImpl implements LocationService {
 
     private final LocationRepository locationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public LocationResponse create(CreateLocationRequest request) {
@@ -32,6 +35,7 @@ public class LocationServiceImpl implements LocationService {
         location.setAddress(request.getAddress());
 
         Location saved = locationRepository.save(location);
+        eventPublisher.publishEvent(new LocationChangedEvent(saved.getId()));
         return mapToResponse(saved);
     }
 
@@ -49,6 +53,7 @@ public class LocationServiceImpl implements LocationService {
         existing.setAddress(request.getAddress());
 
         Location saved = locationRepository.save(existing);
+        eventPublisher.publishEvent(new LocationChangedEvent(saved.getId()));
         return mapToResponse(saved);
     }
 
@@ -76,6 +81,7 @@ public class LocationServiceImpl implements LocationService {
             throw new NotFoundException("Location not found: " + id);
         }
         locationRepository.deleteById(id);
+        eventPublisher.publishEvent(new LocationChangedEvent(id));
     }
 
     private LocationResponse mapToResponse(Location location) {
@@ -1,24 +1,31 @@
 package com.andrea360.backend.service.implementation;
 
+import com.andrea360.backend.config.RetryOnConflict;
 import com.andrea360.backend.dto.member.MemberCreditsResponse;
 import com.andrea360.backend.dto.member.MemberSessionCardResponse;
 import com.andrea360.backend.dto.session.BookSessionResponse;
-import com.andrea360.backend.entity.MemberCredit;
 import com.andrea360.backend.entity.Reservation;
 import com.andrea360.backend.entity.Session;
+import com.andrea360.backend.event.SessionChangedEvent;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
 import com.andrea360.backend.repository.MemberCreditRepository;
 import com.andrea360.backend.repository.ReservationRepository;
 import com.andrea360.backend.repository.SessionRepository;
+import com.andrea360.backend.repository.WaitlistEntryRepository;
 import com.andrea360.backend.service.MemberBookingService;
 import com.andrea360.backend.service.MemberCreditService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -32,39 +39,51 @@ public class MemberBookingServiceImpl implements MemberBookingService {
     private final MemberCreditRepository memberCreditRepository;
     private final ReservationRepository reservationRepository;
     private final SessionRepository sessionRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
     private final MemberCreditService memberCreditService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     private static final List<String> ACTIVE_RESERVATION_STATUSES = List.of("CREATED", "CONFIRMED");
 
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
+
     @Override
     @Transactional(readOnly = true)
     public MemberCreditsResponse getMyCredits(Long memberId) {
-        Integer total = memberCreditRepository.sumCreditsByMemberId(memberId);
-        if (total == null) total = 0;
-
-        List<MemberCredit> credits = memberCreditRepository.findAllByMemberIdWithService(memberId);
-
-        List<MemberCreditsResponse.ServiceCreditsItem> items = credits.stream()
-                .map(mc -> new MemberCreditsResponse.ServiceCreditsItem(
-                        mc.getFitnessService().getId(),
-                        mc.getFitnessService().getName(),
-                        mc.getAvailableCredits()
+        List<MemberCreditsResponse.ServiceCreditsItem> items = memberCreditRepository
+                .findBalancesByMemberId(memberId)
+                .stream()
+                .map(row -> new MemberCreditsResponse.ServiceCreditsItem(
+                        (Long) row[0],
+                        (String) row[1],
+                        ((Number) row[2]).intValue()
                 ))
                 .toList();
 
+        int total = items.stream()
+                .mapToInt(MemberCreditsResponse.ServiceCreditsItem::availableCredits)
+                .sum();
+
         return new MemberCreditsResponse(memberId, total, items);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MemberSessionCardResponse> getAvailableSessions(Long memberId, Long fitnessServiceId, LocalDate date) {
+        // the day in the studio's zone, as a range on starts_at
+        ZoneId zone = ZoneId.of(timeZone);
+        OffsetDateTime dayStart = date == null ? null : date.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime dayEnd = date == null ? null : date.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+
         List<Session> sessions;
         if (fitnessServiceId != null && date != null) {
-            sessions = sessionRepository.findScheduledForMemberBookingByServiceAndDate(fitnessServiceId, date);
+            sessions = sessionRepository.findScheduledForMemberBookingByServiceAndDate(fitnessServiceId, dayStart, dayEnd);
         } else if (fitnessServiceId != null) {
             sessions = sessionRepository.findScheduledForMemberBookingByService(fitnessServiceId);
         } else if (date != null) {
-            sessions = sessionRepository.findScheduledForMemberBookingByDate(date);
+            sessions = sessionRepository.findScheduledForMemberBookingByDate(dayStart, dayEnd);
         } else {
             sessions = sessionRepository.findScheduledForMemberBooking();
         }
@@ -99,9 +118,17 @@ public class MemberBookingServiceImpl implements MemberBookingService {
         }).toList();
     }
 
+    // Each attempt runs in its own transaction, so a conflicting booking is retried from a fresh read.
     @Override
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookSessionResponse bookSession(Long memberId, Long sessionId) {
-        Session session = sessionRepository.findById(sessionId)
+        return transactionTemplate.execute(status -> doBookSession(memberId, sessionId));
+    }
+
+    private BookSessionResponse doBookSession(Long memberId, Long sessionId) {
+        // version-checked like waitlist promotions, so a direct booking can't take a seat being promoted
+        Session session = sessionRepository.findByIdForBooking(sessionId)
                 .orElseThrow(() -> new NotFoundException("Session not found: " + sessionId));
 
         if (!"SCHEDULED".equalsIgnoreCase(session.getStatus())) {
@@ -117,11 +144,10 @@ public class MemberBookingServiceImpl implements MemberBookingService {
         // capacity check
         int currentBookings = (int) reservationRepository.countBySessionIdAndStatusIn(sessionId, ACTIVE_RESERVATION_STATUSES);
         if (currentBookings >= session.getCapacity()) {
-            throw new BusinessException("Session is full.");
+            throw new BusinessException("Session is full. Join the waitlist to get the next free seat.");
         }
 
         Long serviceId = session.getFitnessService().getId();
-        memberCreditService.consumeCredit(memberId, serviceId);
 
         Reservation r = new Reservation();
         var mRef = new com.andrea360.backend.entity.Member();
@@ -133,11 +159,10 @@ public class MemberBookingServiceImpl implements MemberBookingService {
         r.setCreatedAt(OffsetDateTime.now());
         Reservation saved = reservationRepository.save(r);
 
-        MemberCredit mc = memberCreditRepository
-                .findByMemberIdAndFitnessServiceId(memberId, serviceId)
-                .orElse(null);
-
-        int remaining = mc != null ? mc.getAvailableCredits() : 0;
+        memberCreditService.consumeCredit(memberId, serviceId, saved.getId());
+        waitlistEntryRepository.deleteBySessionIdAndMemberId(sessionId, memberId);
+        eventPublisher.publishEvent(new SessionChangedEvent(sessionId, session.getLocation().getId()));
+        int remaining = memberCreditService.getBalance(memberId, serviceId);
 
         return new BookSessionResponse(
                 saved.getId(),
@@ -1,74 +1,123 @@
 package com.andrea360.backend.service.implementation;
 
-import com.andrea360.backend.entity.FitnessService;
-import com.andrea360.backend.entity.Member;
-import com.andrea360.backend.entity.MemberCredit;
+import com.andrea360.backend.entity.CreditTransaction;
+import com.andrea360.backend.entity.enums.CreditTransactionType;
 import com.andrea360.backend.exception.BusinessException;
-import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.CreditTransactionRepository;
 import com.andrea360.backend.repository.FitnessServiceRepository;
 import com.andrea360.backend.repository.MemberCreditRepository;
 import com.andrea360.backend.repository.MemberRepository;
 import com.andrea360.backend.service.MemberCreditService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MemberCreditServiceImpl implements MemberCreditService {
 
     private final MemberCreditRepository memberCreditRepository;
+    private final CreditTransactionRepository creditTransactionRepository;
     private final MemberRepository memberRepository;
     private final FitnessServiceRepository fitnessServiceRepository;
 
+    @Value("${credits.compaction.batchSize:5000}")
+    private int compactionBatchSize;
+
     @Override
-    public MemberCredit getOrCreate(Long memberId, Long fitnessServiceId) {
-        if (memberId == null) throw new BusinessException("memberId is required.");
-        if (fitnessServiceId == null) throw new BusinessException("fitnessServiceId is required.");
+    @Transactional(readOnly = true)
+    public int getBalance(Long memberId, Long fitnessServiceId) {
+        return memberCreditRepository.findBalance(memberId, fitnessServiceId)
+                .map(Long::intValue)
+                .orElse(0);
+    }
+
+    @Override
+    public void addCredits(Long memberId, Long fitnessServiceId, int amount, CreditTransactionType type, Long referenceId) {
+        validate(memberId, fitnessServiceId, amount);
 
-        return memberCreditRepository
-                .findByMemberIdAndFitnessServiceId(memberId, fitnessServiceId)
-                .orElseGet(() -> {
-                    Member member = memberRepository.findById(memberId)
-                            .orElseThrow(() -> new NotFoundException("Member not found: " + memberId));
-
-                    FitnessService service = fitnessServiceRepository.findById(fitnessServiceId)
-                            .orElseThrow(() -> new NotFoundException("FitnessService not found: " + fitnessServiceId));
-
-                    MemberCredit mc = new MemberCredit();
-                    mc.setMember(member);
-                    mc.setFitnessService(service);
-                    mc.setAvailableCredits(0);
-                    return memberCreditRepository.save(mc);
-                });
+        // snapshot row has to exist so the balance is listed before the next compaction
+        memberCreditRepository.insertIfMissing(memberId, fitnessServiceId);
+        append(memberId, fitnessServiceId, amount, type, referenceId);
     }
 
     @Override
-    public void addCredits(Long memberId, Long fitnessServiceId, int amount) {
-        if (amount <= 0) throw new BusinessException("Credit amount must be positive.");
+    public void consumeCredits(Long memberId, Long fitnessServiceId, int amount, CreditTransactionType type, Long referenceId) {
+        if (!tryConsume(memberId, fitnessServiceId, amount, type, referenceId)) {
+            throw new BusinessException("Member does not have enough credits for this service.");
+        }
+    }
 
-        MemberCredit mc = getOrCreate(memberId, fitnessServiceId);
-        mc.setAvailableCredits(mc.getAvailableCredits() + amount);
-        memberCreditRepository.save(mc);
+    @Override
+    public void consumeCredit(Long memberId, Long fitnessServiceId, Long reservationId) {
+        consumeCredits(memberId, fitnessServiceId, 1, CreditTransactionType.BOOKING, reservationId);
     }
 
+    // for callers that must not roll back the surrounding transaction when credits are missing
     @Override
-    public void consumeCredits(Long memberId, Long fitnessServiceId, int amount) {
-        if (amount <= 0) throw new BusinessException("Credit amount must be positive.");
+    public boolean tryConsumeCredit(Long memberId, Long fitnessServiceId, Long reservationId) {
+        return tryConsume(memberId, fitnessServiceId, 1, CreditTransactionType.BOOKING, reservationId);
+    }
+
+    @Override
+    public int compactLedger() {
+        return creditTransactionRepository.compactPending(compactionBatchSize);
+    }
 
-        MemberCredit mc = getOrCreate(memberId, fitnessServiceId);
+    @Scheduled(
+            initialDelayString = "${credits.compaction.intervalMs:60000}",
+            fixedDelayString = "${credits.compaction.intervalMs:60000}"
+    )
+    public void scheduledCompaction() {
+        compactLedger();
+    }
 
-        if (mc.getAvailableCredits() < amount) {
-            throw new BusinessException("Member does not have enough credits for this service.");
+    private boolean tryConsume(Long memberId, Long fitnessServiceId, int amount, CreditTransactionType type, Long referenceId) {
+        validate(memberId, fitnessServiceId, amount);
+
+        // optimistic debit: no row lock on the read, the version bump fails if another debit won the race.
+        // The exception rolls the caller back; the booking services retry the whole transaction.
+        List<Object[]> rows = memberCreditRepository.findVersionAndBalance(memberId, fitnessServiceId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        Long version = (Long) rows.get(0)[0];
+        long balance = ((Number) rows.get(0)[1]).longValue();
+        if (balance < amount) {
+            return false;
         }
 
-        mc.setAvailableCredits(mc.getAvailableCredits() - amount);
-        memberCreditRepository.save(mc);
+        if (memberCreditRepository.bumpVersion(memberId, fitnessServiceId, version) == 0) {
+            throw new OptimisticLockingFailureException(
+                    "Credits of member " + memberId + " were changed concurrently.");
+        }
+
+        append(memberId, fitnessServiceId, -amount, type, referenceId);
+        return true;
     }
 
-    @Override
-    public void consumeCredit(Long memberId, Long fitnessServiceId) {
-        consumeCredits(memberId, fitnessServiceId, 1);
+    private void append(Long memberId, Long fitnessServiceId, int delta, CreditTransactionType type, Long referenceId) {
+        CreditTransaction tx = new CreditTransaction();
+        tx.setMember(memberRepository.getReferenceById(memberId));
+        tx.setFitnessService(fitnessServiceRepository.getReferenceById(fitnessServiceId));
+        tx.setDelta(delta);
+        tx.setType(type);
+        tx.setReferenceId(referenceId);
+        tx.setCreatedAt(OffsetDateTime.now());
+        creditTransactionRepository.save(tx);
+    }
+
+    private void validate(Long memberId, Long fitnessServiceId, int amount) {
+        if (memberId == null) throw new BusinessException("memberId is required.");
+        if (fitnessServiceId == null) throw new BusinessException("fitnessServiceId is required.");
+        if (amount <= 0) throw new BusinessException("Credit amount must be positive.");
     }
-}
\ No newline at end of file
+}
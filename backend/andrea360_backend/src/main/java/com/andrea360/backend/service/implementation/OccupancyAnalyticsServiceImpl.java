@@ -0,0 +1,132 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.analytics.OccupancyResponse;
+import com.andrea360.backend.entity.OccupancyCounter;
+import com.andrea360.backend.entity.enums.OccupancyDimension;
+import com.andrea360.backend.repository.OccupancyCounterRepository;
+import com.andrea360.backend.service.OccupancyAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OccupancyAnalyticsServiceImpl implements OccupancyAnalyticsService {
+
+    private final OccupancyCounterRepository occupancyCounterRepository;
+
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
+
+    @Override
+    public void recordSessionChange(Long sessionId) {
+        if (sessionId == null) return;
+        recordSessionChanges(List.of(sessionId));
+    }
+
+    @Override
+    public void recordSessionChanges(Collection<Long> sessionIds) {
+        if (sessionIds.isEmpty()) return;
+        occupancyCounterRepository.lockSessions(sessionIds);
+        occupancyCounterRepository.lockSessionStates(sessionIds);
+        occupancyCounterRepository.applySessionChanges(sessionIds, timeZone);
+    }
+
+    // Reads at most services x trainers x locations x 168 counter rows, however much history there is.
+    @Override
+    @Transactional(readOnly = true)
+    public OccupancyResponse getOccupancy(OccupancyDimension groupBy, Long fitnessServiceId, Long trainerId, Long locationId) {
+        OccupancyDimension dimension = groupBy == null ? OccupancyDimension.SERVICE : groupBy;
+
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        Map<String, String> labels = new LinkedHashMap<>();
+        long sessions = 0, capacity = 0, booked = 0;
+
+        for (Object[] row : occupancyCounterRepository.findCounters(fitnessServiceId, trainerId, locationId)) {
+            OccupancyCounter c = (OccupancyCounter) row[0];
+            int weekday = c.getHourOfWeek() / 24 + 1;
+            int hour = c.getHourOfWeek() % 24;
+
+            String key;
+            String label;
+            switch (dimension) {
+                case SERVICE -> {
+                    key = String.valueOf(c.getFitnessServiceId());
+                    label = (String) row[1];
+                }
+                case TRAINER -> {
+                    key = String.valueOf(c.getTrainerId());
+                    label = row[2] + " " + row[3];
+                }
+                case LOCATION -> {
+                    key = String.valueOf(c.getLocationId());
+                    label = (String) row[4];
+                }
+                case WEEKDAY -> {
+                    key = String.valueOf(weekday);
+                    label = weekdayName(weekday);
+                }
+                case HOUR -> {
+                    key = String.valueOf(hour);
+                    label = String.format("%02d:00", hour);
+                }
+                default -> {
+                    key = String.valueOf(c.getHourOfWeek());
+                    label = String.format("%s %02d:00", weekdayName(weekday), hour);
+                }
+            }
+
+            long[] t = totals.computeIfAbsent(key, k -> new long[3]);
+            t[0] += c.getSessionCount();
+            t[1] += c.getCapacityTotal();
+            t[2] += c.getBookedTotal();
+            labels.putIfAbsent(key, label);
+
+            sessions += c.getSessionCount();
+            capacity += c.getCapacityTotal();
+            booked += c.getBookedTotal();
+        }
+
+        List<OccupancyResponse.Bucket> buckets = new ArrayList<>(totals.size());
+        totals.forEach((key, t) -> buckets.add(
+                new OccupancyResponse.Bucket(key, labels.get(key), t[0], t[1], t[2], fillRate(t[2], t[1]))));
+
+        // names alphabetically, time buckets in calendar order
+        Comparator<OccupancyResponse.Bucket> order = switch (dimension) {
+            case SERVICE, TRAINER, LOCATION -> Comparator.comparing(OccupancyResponse.Bucket::label);
+            default -> Comparator.comparingInt(b -> Integer.parseInt(b.key()));
+        };
+        buckets.sort(order);
+
+        return new OccupancyResponse(dimension, sessions, capacity, booked, fillRate(booked, capacity), buckets);
+    }
+
+    @Override
+    public int rebuild() {
+        occupancyCounterRepository.lockForRebuild();
+        occupancyCounterRepository.deleteAllCounters();
+        occupancyCounterRepository.deleteAllSessionStates();
+        occupancyCounterRepository.rebuildSessionStates(timeZone);
+        return occupancyCounterRepository.rebuildCounters(timeZone);
+    }
+
+    private static double fillRate(long booked, long capacity) {
+        return capacity == 0 ? 0.0 : (double) booked / capacity;
+    }
+
+    private static String weekdayName(int isoWeekday) {
+        return DayOfWeek.of(isoWeekday).getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,259 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.config.StripeConfig;
+import com.andrea360.backend.dto.stripe.StripeReconciliationResponse;
+import com.andrea360.backend.entity.Payment;
+import com.andrea360.backend.entity.enums.PaymentStatus;
+import com.andrea360.backend.exception.BusinessException;
+import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.PaymentRepository;
+import com.andrea360.backend.service.PaymentReconciliationService;
+import com.andrea360.backend.service.PaymentService;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.model.checkout.SessionCollection;
+import com.stripe.param.checkout.SessionListParams;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationServiceImpl.class);
+
+    // Stripe's max page size for list endpoints
+    private static final long STRIPE_PAGE_SIZE = 100;
+    // checkout session is created right after our payment row, allow some clock skew
+    private static final long CREATED_WINDOW_SLACK_SECONDS = 300;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final StripeConfig stripeConfig;
+
+    @Value("${stripe.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stripe.reconcile.batchSize:100}")
+    private int batchSize;
+
+    @Value("${stripe.reconcile.minAgeMinutes:10}")
+    private long minAgeMinutes;
+
+    @Value("${stripe.reconcile.requestsPerSecond:5}")
+    private double requestsPerSecond;
+
+    @Value("${stripe.reconcile.maxListPagesPerBatch:5}")
+    private int maxListPagesPerBatch;
+
+    // only touched by the run holding the flag
+    private long nextRequestAtNanos;
+    private int requestCount;
+
+    // One run at a time, whoever started it. Not tied to a thread, so an admin-triggered run can be
+    // claimed on the request thread and released on the executor.
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "stripe-reconcile");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile StripeReconciliationResponse lastResult;
+
+    @Scheduled(
+            initialDelayString = "${stripe.reconcile.initialDelayMs:60000}",
+            fixedDelayString = "${stripe.reconcile.intervalMs:300000}"
+    )
+    public void scheduledReconcile() {
+        if (!enabled || stripeConfig.getSecretKey() == null || stripeConfig.getSecretKey().isBlank()) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Stripe reconciliation still running, skipping this round");
+            return;
+        }
+        runClaimed();
+    }
+
+    // The run is throttled to Stripe's rate and can take minutes, so admins only start it.
+    @Override
+    public void startReconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("Stripe reconciliation is already running.");
+        }
+        try {
+            executor.execute(this::runClaimed);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    @Override
+    public StripeReconciliationResponse lastReconciliation() {
+        StripeReconciliationResponse result = lastResult;
+        if (result == null) {
+            throw new NotFoundException("Stripe reconciliation has not run yet.");
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runClaimed() {
+        try {
+            StripeReconciliationResponse result = reconcile();
+            if (result.scanned() > 0) {
+                log.info("Stripe reconciliation: {}", result);
+            }
+        } catch (Exception e) {
+            log.warn("Stripe reconciliation run failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private StripeReconciliationResponse reconcile() {
+        requestCount = 0;
+        int scanned = 0;
+        int paid = 0;
+        int cancelled = 0;
+        int pending = 0;
+
+        // young payments are still in the browser checkout flow, leave them to confirm/webhook
+        OffsetDateTime createdBefore = OffsetDateTime.now().minusMinutes(minAgeMinutes);
+        long afterId = 0L;
+
+        while (true) {
+            List<Payment> batch = paymentRepository.findStripeBatchAfter(
+                    PaymentStatus.PENDING, afterId, createdBefore, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) break;
+
+            afterId = batch.get(batch.size() - 1).getId();
+            scanned += batch.size();
+
+            Map<String, Session> sessions = fetchSessions(batch);
+
+            for (Payment p : batch) {
+                Session session = sessions.get(p.getExternalRef());
+                if (session == null) {
+                    pending++;
+                    continue;
+                }
+
+                PaymentStatus status = paymentService.applyStripeSession(p.getId(), session);
+                if (status == PaymentStatus.PAID) paid++;
+                else if (status == PaymentStatus.CANCELLED) cancelled++;
+                else pending++;
+            }
+
+            if (batch.size() < batchSize) break;
+        }
+
+        StripeReconciliationResponse result =
+                new StripeReconciliationResponse(scanned, paid, cancelled, pending, requestCount);
+        lastResult = result;
+        return result;
+    }
+
+    // One list call returns up to 100 sessions, so a whole batch is usually resolved in one or two
+    // requests. Whatever the listing did not cover falls back to a single retrieve per session.
+    private Map<String, Session> fetchSessions(List<Payment> batch) {
+        Set<String> wanted = batch.stream()
+                .map(Payment::getExternalRef)
+                .collect(Collectors.toSet());
+
+        long from = batch.stream().mapToLong(p -> p.getCreatedAt().toEpochSecond()).min().orElse(0L)
+                - CREATED_WINDOW_SLACK_SECONDS;
+        long to = batch.stream().mapToLong(p -> p.getCreatedAt().toEpochSecond()).max().orElse(0L)
+                + CREATED_WINDOW_SLACK_SECONDS;
+
+        Map<String, Session> found = new HashMap<>();
+        String startingAfter = null;
+        int pages = 0;
+        boolean hasMore;
+
+        do {
+            SessionListParams.Builder params = SessionListParams.builder()
+                    .setLimit(STRIPE_PAGE_SIZE)
+                    .setCreated(SessionListParams.Created.builder()
+                            .setGte(from)
+                            .setLte(to)
+                            .build());
+            if (startingAfter != null) {
+                params.setStartingAfter(startingAfter);
+            }
+
+            SessionCollection page;
+            try {
+                throttle();
+                page = Session.list(params.build());
+            } catch (StripeException e) {
+                log.warn("Stripe session list failed, falling back to single retrieves: {}", e.getMessage());
+                break;
+            }
+
+            for (Session s : page.getData()) {
+                if (wanted.contains(s.getId())) {
+                    found.put(s.getId(), s);
+                }
+                startingAfter = s.getId();
+            }
+
+            pages++;
+            hasMore = Boolean.TRUE.equals(page.getHasMore())
+                    && found.size() < wanted.size()
+                    && pages < maxListPagesPerBatch;
+        } while (hasMore);
+
+        for (String id : wanted) {
+            if (found.containsKey(id)) continue;
+            try {
+                throttle();
+                found.put(id, Session.retrieve(id));
+            } catch (StripeException e) {
+                log.warn("Cannot retrieve Stripe session {}: {}", id, e.getMessage());
+            }
+        }
+
+        return found;
+    }
+
+    private void throttle() {
+        long intervalNanos = (long) (1_000_000_000L / Math.max(requestsPerSecond, 0.1));
+        long now = System.nanoTime();
+        long waitNanos = nextRequestAtNanos - now;
+
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("Stripe reconciliation interrupted.");
+            }
+        }
+
+        nextRequestAtNanos = Math.max(now, nextRequestAtNanos) + intervalNanos;
+        requestCount++;
+    }
+}
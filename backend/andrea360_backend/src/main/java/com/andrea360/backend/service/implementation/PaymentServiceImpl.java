@@ -9,17 +9,25 @@ import com.andrea360.backend.dto.stripe.CreateCheckoutSessionResponse;
 import com.andrea360.backend.entity.FitnessService;
 import com.andrea360.backend.entity.Member;
 import com.andrea360.backend.entity.Payment;
+import com.andrea360.backend.entity.enums.CreditTransactionType;
 import com.andrea360.backend.entity.enums.PaymentMethod;
 import com.andrea360.backend.entity.enums.PaymentStatus;
+import com.andrea360.backend.event.PaymentPaidEvent;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.CreditTransactionRepository;
 import com.andrea360.backend.repository.FitnessServiceRepository;
 import com.andrea360.backend.repository.MemberRepository;
 import com.andrea360.backend.repository.PaymentRepository;
 import com.andrea360.backend.service.MemberCreditService;
 import com.andrea360.backend.service.PaymentService;
+import com.andrea360.backend.service.RevenueReportService;
+import com.andrea360.backend.service.StripeCatalogService;
 import com.stripe.model.checkout.Session;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,55 +44,69 @@ public class PaymentServiceImpl implements PaymentService {
     private final MemberRepository memberRepository;
     private final FitnessServiceRepository fitnessServiceRepository;
     private final MemberCreditService memberCreditService;
+    private final CreditTransactionRepository creditTransactionRepository;
+    private final RevenueReportService revenueReportService;
+    private final StripeCatalogService stripeCatalogService;
     private final StripeConfig stripeConfig;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
     public PaymentResponse create(CreatePaymentRequest request) {
-
-        Member member = memberRepository.findById(request.getMemberId())
-                .orElseThrow(() -> new NotFoundException("Member not found: " + request.getMemberId()));
-
-        FitnessService fitnessService = fitnessServiceRepository.findById(request.getFitnessServiceId())
-                .orElseThrow(() -> new NotFoundException("FitnessService not found: " + request.getFitnessServiceId()));
-
-        Payment p = new Payment();
-        p.setMember(member);
-        p.setFitnessService(fitnessService);
-
         int qty = (request.getQuantity() == null) ? 1 : request.getQuantity();
         if (qty < 1) {
             throw new BusinessException("Quantity must be at least 1.");
         }
-        p.setQuantity(qty);
 
-        BigDecimal amount = request.getAmount();
-        if (amount == null) {
-            amount = fitnessService.getPrice().multiply(BigDecimal.valueOf(qty));
-        }
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (request.getAmount() != null && request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new BusinessException("Amount must be greater than 0.");
         }
-        p.setAmount(amount);
 
         String currency = (request.getCurrency() == null || request.getCurrency().isBlank())
                 ? "EUR"
                 : request.getCurrency().toUpperCase();
-        p.setCurrency(currency);
 
-        p.setMethod(PaymentMethod.ONLINE);
+        // references instead of loads: only the ids go into the payment row and the ledger
+        Payment p = new Payment();
+        p.setMember(memberRepository.getReferenceById(request.getMemberId()));
+        p.setFitnessService(fitnessServiceRepository.getReferenceById(request.getFitnessServiceId()));
+        p.setQuantity(qty);
 
-        p.setStatus(PaymentStatus.PAID);
-        p.setCreatedAt(OffsetDateTime.now());
-        p.setPaidAt(OffsetDateTime.now());
+        BigDecimal amount = request.getAmount();
+        if (amount == null) {
+            try {
+                amount = p.getFitnessService().getPrice().multiply(BigDecimal.valueOf(qty));
+            } catch (EntityNotFoundException e) {
+                throw new NotFoundException("FitnessService not found: " + request.getFitnessServiceId());
+            }
+        }
+        p.setAmount(amount);
 
+        p.setCurrency(currency);
+        p.setMethod(PaymentMethod.ONLINE);
+        p.setStatus(PaymentStatus.PAID);
+        OffsetDateTime now = OffsetDateTime.now();
+        p.setCreatedAt(now);
+        p.setPaidAt(now);
         p.setExternalRef("TEST-" + java.util.UUID.randomUUID());
 
-        Payment saved = paymentRepository.save(p);
+        Payment saved;
+        try {
+            saved = paymentRepository.save(p);
+        } catch (DataIntegrityViolationException e) {
+            // a reference to a missing row only shows up as the foreign key violation
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains("fk_payment_member")) {
+                throw new NotFoundException("Member not found: " + request.getMemberId());
+            }
+            if (message != null && message.contains("fk_payment_fitness_service")) {
+                throw new NotFoundException("FitnessService not found: " + request.getFitnessServiceId());
+            }
+            throw e;
+        }
 
         applyCreditsIfNeeded(saved);
 
-
         Payment full = paymentRepository.findByIdFull(saved.getId())
                 .orElseThrow(() -> new NotFoundException("Payment not found after save: " + saved.getId()));
 
@@ -93,18 +115,17 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     public PaymentResponse update(Long id, UpdatePaymentRequest request) {
-        Payment existing = paymentRepository.findById(id)
+        Payment existing = paymentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Payment not found: " + id));
 
-        if (request.getStatus() != null && request.getStatus() != existing.getStatus()) {
-            existing.setStatus(request.getStatus());
-
-            if (request.getStatus() == PaymentStatus.PAID) {
-                if (existing.getPaidAt() == null) {
-                    existing.setPaidAt(OffsetDateTime.now());
-                }
-                applyCreditsIfNeeded(existing);
-            }
+        // credits and the revenue rollup were recorded with the paid values; there is no reversal
+        boolean wasPaid = existing.getStatus() == PaymentStatus.PAID;
+        if (wasPaid && request.getStatus() != null && request.getStatus() != PaymentStatus.PAID) {
+            throw new BusinessException("A paid payment can't change its status.");
+        }
+        if (wasPaid && (request.getQuantity() != null || request.getAmount() != null
+                || (request.getCurrency() != null && !request.getCurrency().isBlank()))) {
+            throw new BusinessException("Quantity, amount and currency of a paid payment can't be changed.");
         }
 
         if (request.getExternalRef() != null && !request.getExternalRef().isBlank()) {
@@ -131,6 +152,18 @@ public class PaymentServiceImpl implements PaymentService {
             existing.setCurrency(request.getCurrency().trim().toUpperCase());
         }
 
+        // after the field edits, so credits and the rollup see the values from this request
+        if (request.getStatus() != null && request.getStatus() != existing.getStatus()) {
+            existing.setStatus(request.getStatus());
+
+            if (request.getStatus() == PaymentStatus.PAID) {
+                if (existing.getPaidAt() == null) {
+                    existing.setPaidAt(OffsetDateTime.now());
+                }
+                applyCreditsIfNeeded(existing);
+            }
+        }
+
         Payment saved = paymentRepository.save(existing);
         return map(saved);
     }
@@ -154,7 +187,7 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     public PaymentResponse markAsPaid(Long id) {
-        Payment p = paymentRepository.findById(id)
+        Payment p = paymentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Payment not found: " + id));
 
         if (p.getStatus() != PaymentStatus.PAID) {
@@ -169,8 +202,13 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    public void markPaidFromStripe(Payment payment, Session session) {
+    public void markPaidFromStripe(Long paymentId, Session session) {
+        Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new NotFoundException("Payment not found: " + paymentId));
+        markPaidFromStripe(payment);
+    }
 
+    private void markPaidFromStripe(Payment payment) {
         if (payment.getStatus() == PaymentStatus.PAID) {
             return;
         }
@@ -253,7 +291,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         Payment saved = paymentRepository.save(p);
 
-        long unitAmountCents = fitnessService.getPrice().movePointRight(2).longValueExact();
+        String priceId = stripeCatalogService.resolvePriceId(fitnessService, currency);
 
         var params =
                 com.stripe.param.checkout.SessionCreateParams.builder()
@@ -263,15 +301,7 @@ public class PaymentServiceImpl implements PaymentService {
                         .addLineItem(
                                 com.stripe.param.checkout.SessionCreateParams.LineItem.builder()
                                         .setQuantity((long) qty)
-                                        .setPriceData(
-                                                com.stripe.param.checkout.SessionCreateParams.LineItem.PriceData.builder()
-                                                        .setCurrency(currency)
-                                                        .setUnitAmount(unitAmountCents)
-                                                        .setProductData(
-                                                                com.stripe.param.checkout.SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                                                                        .setName(fitnessService.getName() + " credit")
-                                                                        .build())
-                                                        .build())
+                                        .setPrice(priceId)
                                         .build())
                         .putMetadata("paymentId", String.valueOf(saved.getId()))
                         .putMetadata("memberId", String.valueOf(memberId))
@@ -295,8 +325,9 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     public PaymentResponse confirmStripeCheckout(String sessionId) {
 
-        Payment payment = paymentRepository.findByExternalRef(sessionId)
-                .orElseThrow(() -> new NotFoundException("Payment not found for session: " + sessionId));
+        if (!paymentRepository.existsByExternalRef(sessionId)) {
+            throw new NotFoundException("Payment not found for session: " + sessionId);
+        }
 
         Session session;
         try {
@@ -305,6 +336,10 @@ public class PaymentServiceImpl implements PaymentService {
             throw new BusinessException("Cannot retrieve Stripe session: " + e.getMessage());
         }
 
+        // locked only after the Stripe call, a webhook or reconciler run may have been first
+        Payment payment = paymentRepository.findByExternalRefForUpdate(sessionId)
+                .orElseThrow(() -> new NotFoundException("Payment not found for session: " + sessionId));
+
         String status = session.getPaymentStatus();
         if (!"paid".equals(status)) {
             return map(payment);
@@ -321,6 +356,30 @@ public class PaymentServiceImpl implements PaymentService {
         return map(full);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findLedgerMismatches() {
+        return creditTransactionRepository.findPaidPaymentsOutOfBalance();
+    }
+
+    @Override
+    public PaymentStatus applyStripeSession(Long paymentId, Session session) {
+        Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new NotFoundException("Payment not found: " + paymentId));
+
+        if ("paid".equals(session.getPaymentStatus())) {
+            markPaidFromStripe(payment);
+        } else if ("expired".equals(session.getStatus()) && payment.getStatus() == PaymentStatus.PENDING) {
+            // checkout was abandoned, Stripe will never complete it
+            payment.setStatus(PaymentStatus.CANCELLED);
+            paymentRepository.save(payment);
+        }
+
+        return payment.getStatus();
+    }
+
+    // Every caller holds the payment row lock (findByIdForUpdate / findByExternalRefForUpdate), so
+    // creditsApplied can't be read as false by two transactions; uk_credit_tx_purchase_payment backs it up.
     private void applyCreditsIfNeeded(Payment p) {
         if (p.getStatus() == PaymentStatus.PAID && !p.isCreditsApplied()) {
             int qty = (p.getQuantity() == null) ? 1 : p.getQuantity();
@@ -328,10 +387,16 @@ public class PaymentServiceImpl implements PaymentService {
             memberCreditService.addCredits(
                     p.getMember().getId(),
                     p.getFitnessService().getId(),
-                    qty
+                    qty,
+                    CreditTransactionType.PURCHASE,
+                    p.getId()
             );
+            // same once-per-payment guard as credits, so the rollup counts each payment exactly once
+            revenueReportService.recordPaid(p);
 
             p.setCreditsApplied(true);
+            eventPublisher.publishEvent(new PaymentPaidEvent(
+                    p.getMember().getId(), p.getId(), p.getFitnessService().getId(), qty));
         }
     }
 
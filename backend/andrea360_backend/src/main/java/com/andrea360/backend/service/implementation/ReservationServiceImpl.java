@@ -1,5 +1,6 @@
 package com.andrea360.backend.service.implementation;
 
+import com.andrea360.backend.config.RetryOnConflict;
 import com.andrea360.backend.dto.reservation.CreateReservationRequest;
 import com.andrea360.backend.dto.reservation.ReservationResponse;
 import com.andrea360.backend.dto.reservation.UpdateReservationRequest;
@@ -7,6 +8,8 @@ import com.andrea360.backend.entity.Member;
 import com.andrea360.backend.entity.Payment;
 import com.andrea360.backend.entity.Reservation;
 import com.andrea360.backend.entity.Session;
+import com.andrea360.backend.entity.enums.CreditTransactionType;
+import com.andrea360.backend.event.SessionChangedEvent;
 import com.andrea360.backend.entity.enums.PaymentStatus;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
@@ -16,11 +19,18 @@ import com.andrea360.backend.repository.ReservationRepository;
 import com.andrea360.backend.repository.SessionRepository;
 import com.andrea360.backend.service.MemberCreditService;
 import com.andrea360.backend.service.ReservationService;
+import com.andrea360.backend.service.WaitlistService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Set;
 
@@ -34,15 +44,39 @@ public class ReservationServiceImpl implements ReservationService {
     private final SessionRepository sessionRepository;
     private final PaymentRepository paymentRepository;
     private final MemberCreditService memberCreditService;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     private static final Set<String> ACTIVE_STATUSES = Set.of("CONFIRMED");
 
+    // Each attempt runs in its own transaction, so a conflicting booking is retried from a fresh read.
     @Override
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationResponse create(CreateReservationRequest request) {
+        return transactionTemplate.execute(status -> doCreate(request));
+    }
+
+    @Override
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReservationResponse update(Long id, UpdateReservationRequest request) {
+        return transactionTemplate.execute(status -> doUpdate(id, request));
+    }
+
+    @Override
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReservationResponse cancel(Long id) {
+        return transactionTemplate.execute(status -> doCancel(id));
+    }
+
+    private ReservationResponse doCreate(CreateReservationRequest request) {
         Member member = memberRepository.findById(request.getMemberId())
                 .orElseThrow(() -> new NotFoundException("Member not found: " + request.getMemberId()));
 
-        Session session = sessionRepository.findByIdForUpdate(request.getSessionId())
+        Session session = sessionRepository.findByIdForBooking(request.getSessionId())
                 .orElseThrow(() -> new NotFoundException("Session not found: " + request.getSessionId()));
 
         if (reservationRepository.existsByMemberIdAndSessionIdAndStatusIn(
@@ -80,14 +114,15 @@ public class ReservationServiceImpl implements ReservationService {
 
         memberCreditService.consumeCredit(
                 member.getId(),
-                session.getFitnessService().getId()
+                session.getFitnessService().getId(),
+                saved.getId()
         );
 
+        publishChanged(session);
         return map(saved);
     }
 
-    @Override
-    public ReservationResponse update(Long id, UpdateReservationRequest request) {
+    private ReservationResponse doUpdate(Long id, UpdateReservationRequest request) {
 
         Reservation existing = reservationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Reservation not found: " + id));
@@ -136,7 +171,10 @@ public class ReservationServiceImpl implements ReservationService {
         existing.setPayment(payment);
         existing.setNote(request.getNote());
 
+        boolean freesSeat = false;
         if (request.getStatus() != null && !request.getStatus().isBlank()) {
+            freesSeat = !"CANCELLED".equals(existing.getStatus())
+                    && "CANCELLED".equals(request.getStatus().trim().toUpperCase());
             existing.setStatus(request.getStatus().trim().toUpperCase());
             if ("CANCELLED".equals(existing.getStatus()) && existing.getCancelledAt() == null) {
                 existing.setCancelledAt(OffsetDateTime.now());
@@ -144,6 +182,10 @@ public class ReservationServiceImpl implements ReservationService {
         }
 
         Reservation saved = reservationRepository.save(existing);
+        if (freesSeat) {
+            waitlistService.promote(saved.getSession().getId());
+        }
+        publishChanged(saved.getSession());
         return map(saved);
     }
 
@@ -183,8 +225,7 @@ public class ReservationServiceImpl implements ReservationService {
 //        return map(saved);
 //    }
 
-    @Override
-    public ReservationResponse cancel(Long id) {
+    private ReservationResponse doCancel(Long id) {
         Reservation r = reservationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Reservation not found: " + id));
 
@@ -201,11 +242,17 @@ public class ReservationServiceImpl implements ReservationService {
             memberCreditService.addCredits(
                     r.getMember().getId(),
                     r.getSession().getFitnessService().getId(),
-                    1
+                    1,
+                    CreditTransactionType.BOOKING_CANCELLED,
+                    r.getId()
             );
         }
 
         r = reservationRepository.save(r);
+
+        // the freed seat goes to the next member on the waitlist in this same transaction
+        waitlistService.promote(r.getSession().getId());
+        publishChanged(r.getSession());
         return map(r);
     }
 
@@ -218,13 +265,39 @@ public class ReservationServiceImpl implements ReservationService {
                 .toList();
     }
 
+    // reservations of sessions past the retention window, see ArchiveServiceImpl
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationResponse> getMyArchivedReservations(Long memberId) {
+        if (memberId == null) throw new BusinessException("memberId is required.");
+        return reservationRepository.findArchivedByMemberId(memberId).stream()
+                .map(row -> new ReservationResponse(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        (row[2] + " " + row[3]).trim(),
+                        ((Number) row[4]).longValue(),
+                        toOffsetDateTime(row[5]),
+                        row[6] == null ? null : ((Number) row[6]).longValue(),
+                        (String) row[7],
+                        (String) row[8],
+                        toOffsetDateTime(row[9]),
+                        toOffsetDateTime(row[10]),
+                        (String) row[11]
+                ))
+                .toList();
+    }
 
     @Override
     public void delete(Long id) {
-        if (!reservationRepository.existsById(id)) {
-            throw new NotFoundException("Reservation not found: " + id);
-        }
-        reservationRepository.deleteById(id);
+        Reservation r = reservationRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Reservation not found: " + id));
+        Session session = r.getSession();
+        reservationRepository.delete(r);
+        publishChanged(session);
+    }
+
+    private void publishChanged(Session session) {
+        eventPublisher.publishEvent(new SessionChangedEvent(session.getId(), session.getLocation().getId()));
     }
 
     private void ensureCapacity(Long sessionId, Integer sessionCapacity) {
@@ -237,6 +310,14 @@ public class ReservationServiceImpl implements ReservationService {
         }
     }
 
+    // native queries hand timestamptz back as Instant or OffsetDateTime depending on the driver mapping
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value == null) return null;
+        if (value instanceof OffsetDateTime odt) return odt;
+        if (value instanceof Instant instant) return instant.atOffset(ZoneOffset.UTC);
+        return ((Timestamp) value).toInstant().atOffset(ZoneOffset.UTC);
+    }
+
     private ReservationResponse map(Reservation r) {
         Long paymentId = (r.getPayment() != null) ? r.getPayment().getId() : null;
         String paymentStatus = (r.getPayment() != null) ? r.getPayment().getStatus().name() : null;
@@ -0,0 +1,104 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.report.RevenueRollupResponse;
+import com.andrea360.backend.entity.Payment;
+import com.andrea360.backend.entity.RevenueRollup;
+import com.andrea360.backend.entity.enums.PaymentStatus;
+import com.andrea360.backend.entity.enums.RevenuePeriod;
+import com.andrea360.backend.exception.BusinessException;
+import com.andrea360.backend.repository.RevenueRollupRepository;
+import com.andrea360.backend.service.RevenueReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RevenueReportServiceImpl implements RevenueReportService {
+
+    // upper bound for a single report request, keeps the response size predictable
+    private static final long MAX_DAYS = 366;
+    private static final long MAX_MONTHS = 60;
+
+    private final RevenueRollupRepository revenueRollupRepository;
+
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
+
+    @Override
+    public void recordPaid(Payment payment) {
+        if (payment.getStatus() != PaymentStatus.PAID) return;
+
+        OffsetDateTime paidAt = payment.getPaidAt() != null ? payment.getPaidAt() : OffsetDateTime.now();
+        LocalDate day = paidAt.atZoneSameInstant(ZoneId.of(timeZone)).toLocalDate();
+
+        revenueRollupRepository.addPaid(
+                payment.getFitnessService().getId(),
+                payment.getCurrency(),
+                day,
+                day.withDayOfMonth(1),
+                payment.getAmount() == null ? BigDecimal.ZERO : payment.getAmount(),
+                payment.getQuantity() == null ? 1 : payment.getQuantity()
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueRollupResponse> getRevenue(RevenuePeriod period, LocalDate from, LocalDate to, Long locationId) {
+        RevenuePeriod p = period == null ? RevenuePeriod.DAY : period;
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneId.of(timeZone));
+        LocalDate start = from != null
+                ? from
+                : (p == RevenuePeriod.DAY ? end.minusDays(29) : end.minusMonths(11));
+
+        if (p == RevenuePeriod.MONTH) {
+            start = start.withDayOfMonth(1);
+            end = end.withDayOfMonth(1);
+        }
+
+        if (start.isAfter(end)) {
+            throw new BusinessException("'from' must be before or equal to 'to'.");
+        }
+        if (p == RevenuePeriod.DAY && start.plusDays(MAX_DAYS).isBefore(end)) {
+            throw new BusinessException("Daily revenue range can't exceed " + MAX_DAYS + " days.");
+        }
+        if (p == RevenuePeriod.MONTH && start.plusMonths(MAX_MONTHS).isBefore(end)) {
+            throw new BusinessException("Monthly revenue range can't exceed " + MAX_MONTHS + " months.");
+        }
+
+        return revenueRollupRepository.findRollups(p, start, end, locationId).stream()
+                .map(row -> {
+                    RevenueRollup r = (RevenueRollup) row[0];
+                    return new RevenueRollupResponse(
+                            r.getPeriodType(),
+                            r.getPeriodStart(),
+                            r.getLocationId(),
+                            (String) row[1],
+                            r.getFitnessServiceId(),
+                            (String) row[2],
+                            r.getCurrency(),
+                            r.getAmountTotal(),
+                            r.getQuantityTotal(),
+                            r.getPaymentCount()
+                    );
+                })
+                .toList();
+    }
+
+    @Override
+    public int rebuild() {
+        // runs in one transaction, readers keep seeing the old rollups until commit
+        revenueRollupRepository.lockForRebuild();
+        revenueRollupRepository.deleteAllRollups();
+        return revenueRollupRepository.rebuildFromPayments(timeZone);
+    }
+}
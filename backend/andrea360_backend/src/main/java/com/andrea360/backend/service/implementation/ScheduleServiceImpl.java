@@ -0,0 +1,98 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.schedule.WeekScheduleResponse;
+import com.andrea360.backend.repository.SessionRepository;
+import com.andrea360.backend.service.ScheduleService;
+import com.andrea360.backend.service.scheduling.ScheduleVersions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ScheduleServiceImpl implements ScheduleService {
+
+    private final SessionRepository sessionRepository;
+    private final ScheduleVersions scheduleVersions;
+
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
+
+    @Override
+    public LocalDate weekStart(LocalDate anyDay) {
+        LocalDate day = anyDay != null ? anyDay : LocalDate.now(ZoneId.of(timeZone));
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // not transactional on purpose: a matching ETag is answered with 304 without touching the pool
+    @Override
+    public String weekEtag(Long locationId, LocalDate weekStart) {
+        return "\"" + scheduleVersions.epoch()
+                + "-" + (locationId == null ? "all" : locationId)
+                + "-" + scheduleVersions.current(locationId)
+                + "-" + weekStart + "\"";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WeekScheduleResponse getWeek(Long locationId, LocalDate weekStart) {
+        ZoneId zone = ZoneId.of(timeZone);
+        OffsetDateTime from = weekStart.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime to = weekStart.plusWeeks(1).atStartOfDay(zone).toOffsetDateTime();
+
+        List<Object[]> rows = sessionRepository.findWeekRows(locationId, from, to);
+        int n = rows.size();
+
+        long[] ids = new long[n];
+        long[] startsAt = new long[n];
+        int[] durationMinutes = new int[n];
+        int[] capacity = new int[n];
+        int[] booked = new int[n];
+        String[] status = new String[n];
+        long[] serviceIds = new long[n];
+        long[] trainerIds = new long[n];
+        long[] locationIds = new long[n];
+
+        Map<Long, String> services = new LinkedHashMap<>();
+        Map<Long, String> trainers = new LinkedHashMap<>();
+        Map<Long, String> locations = new LinkedHashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            OffsetDateTime start = (OffsetDateTime) row[1];
+            OffsetDateTime end = (OffsetDateTime) row[2];
+
+            ids[i] = (Long) row[0];
+            startsAt[i] = start.toEpochSecond();
+            durationMinutes[i] = (int) Duration.between(start, end).toMinutes();
+            capacity[i] = (Integer) row[3];
+            status[i] = (String) row[4];
+            serviceIds[i] = (Long) row[5];
+            trainerIds[i] = (Long) row[7];
+            locationIds[i] = (Long) row[10];
+            booked[i] = ((Number) row[12]).intValue();
+
+            services.putIfAbsent(serviceIds[i], (String) row[6]);
+            trainers.putIfAbsent(trainerIds[i], row[8] + " " + row[9]);
+            locations.putIfAbsent(locationIds[i], (String) row[11]);
+        }
+
+        return new WeekScheduleResponse(
+                weekStart, timeZone, locationId,
+                ids, startsAt, durationMinutes, capacity, booked, status,
+                serviceIds, trainerIds, locationIds,
+                services, trainers, locations
+        );
+    }
+}
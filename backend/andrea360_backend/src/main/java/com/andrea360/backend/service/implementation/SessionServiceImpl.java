@@ -1,34 +1,72 @@
 package com.andrea360.backend.service.implementation;
 
 import com.andrea360.backend.dto.session.CreateSessionRequest;
+import com.andrea360.backend.dto.session.CreateSessionSeriesRequest;
+import com.andrea360.backend.dto.session.SessionCancellationResponse;
 import com.andrea360.backend.dto.session.SessionResponse;
+import com.andrea360.backend.dto.session.SessionSeriesConflict;
+import com.andrea360.backend.dto.session.SessionSeriesResponse;
 import com.andrea360.backend.dto.session.UpdateSessionRequest;
 import com.andrea360.backend.entity.Employee;
 import com.andrea360.backend.entity.FitnessService;
 import com.andrea360.backend.entity.Location;
 import com.andrea360.backend.entity.Session;
+import com.andrea360.backend.event.SessionChangedEvent;
+import com.andrea360.backend.event.SessionsChangedEvent;
 import com.andrea360.backend.exception.BusinessException;
 import com.andrea360.backend.exception.NotFoundException;
 import com.andrea360.backend.repository.EmployeeRepository;
 import com.andrea360.backend.repository.FitnessServiceRepository;
 import com.andrea360.backend.repository.LocationRepository;
+import com.andrea360.backend.repository.ReservationRepository;
 import com.andrea360.backend.repository.SessionRepository;
+import com.andrea360.backend.repository.WaitlistEntryRepository;
 import com.andrea360.backend.service.SessionService;
+import com.andrea360.backend.service.WaitlistService;
+import com.andrea360.backend.service.scheduling.IntervalTree;
+import com.andrea360.backend.service.scheduling.TrainerCalendarIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class SessionServiceImpl implements SessionService {
 
+    private static final long MAX_SERIES_DAYS = 366;
+
+    private static final String TRAINER_OVERLAP_MESSAGE = "Trainer already has a session in that time range.";
+    private static final String TRAINER_OVERLAP_CONSTRAINT = "ex_sessions_trainer_no_overlap";
+    // Postgres exclusion_violation
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final SessionRepository sessionRepository;
     private final LocationRepository locationRepository;
     private final FitnessServiceRepository fitnessServiceRepository;
     private final EmployeeRepository employeeRepository;
+    private final ReservationRepository reservationRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final WaitlistService waitlistService;
+    private final TrainerCalendarIndex trainerCalendarIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
 
     @Override
     public SessionResponse create(CreateSessionRequest request) {
@@ -43,9 +81,7 @@ public class SessionServiceImpl implements SessionService {
         Employee trainer = employeeRepository.findById(request.getTrainerEmployeeId())
                 .orElseThrow(() -> new NotFoundException("Employee (trainer) not found: " + request.getTrainerEmployeeId()));
 
-        if (sessionRepository.existsTrainerOverlap(trainer.getId(), request.getStartsAt(), request.getEndsAt(), null)) {
-            throw new BusinessException("Trainer already has a session in that time range.");
-        }
+        ensureTrainerFree(trainer.getId(), request.getStartsAt(), request.getEndsAt(), null);
 
         if (!fitnessService.getLocation().getId().equals(location.getId())) {
             throw new BusinessException("Service does not belong to selected location.");
@@ -68,16 +104,126 @@ public class SessionServiceImpl implements SessionService {
         s.setFitnessService(fitnessService);
         s.setTrainer(trainer);
 
-        Session saved = sessionRepository.save(s);
+        Session saved = saveCheckingTrainerOverlap(() -> sessionRepository.saveAndFlush(s));
+        trainerCalendarIndex.putAfterCommit(saved.getId(), trainer.getId(), saved.getStartsAt(), saved.getEndsAt());
+        eventPublisher.publishEvent(new SessionChangedEvent(saved.getId(), location.getId()));
         return mapToResponse(saved);
     }
 
+    @Override
+    public SessionSeriesResponse createSeries(CreateSessionSeriesRequest request) {
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new BusinessException("toDate must be on or after fromDate.");
+        }
+        if (request.getFromDate().plusDays(MAX_SERIES_DAYS).isBefore(request.getToDate())) {
+            throw new BusinessException("Series can't span more than " + MAX_SERIES_DAYS + " days.");
+        }
+
+        Location location = locationRepository.findById(request.getLocationId())
+                .orElseThrow(() -> new NotFoundException("Location not found: " + request.getLocationId()));
+
+        FitnessService fitnessService = fitnessServiceRepository.findById(request.getFitnessServiceId())
+                .orElseThrow(() -> new NotFoundException("FitnessService not found: " + request.getFitnessServiceId()));
+
+        Employee trainer = employeeRepository.findById(request.getTrainerEmployeeId())
+                .orElseThrow(() -> new NotFoundException("Employee (trainer) not found: " + request.getTrainerEmployeeId()));
+
+        if (!fitnessService.getLocation().getId().equals(location.getId())) {
+            throw new BusinessException("Service does not belong to selected location.");
+        }
+
+        if (!trainer.getLocation().getId().equals(location.getId())) {
+            throw new BusinessException("Trainer does not belong to selected location.");
+        }
+
+        int duration = request.getDurationMinutes() != null
+                ? request.getDurationMinutes()
+                : fitnessService.getDurationMinutes();
+
+        // expand the weekly pattern in gym-local time, so DST shifts keep the wall-clock start
+        ZoneId zone = ZoneId.of(timeZone);
+        Set<LocalDate> except = request.getExceptDates() == null ? Set.of() : new HashSet<>(request.getExceptDates());
+        List<OffsetDateTime[]> occurrences = new ArrayList<>();
+
+        for (LocalDate d = request.getFromDate(); !d.isAfter(request.getToDate()); d = d.plusDays(1)) {
+            if (!request.getDaysOfWeek().contains(d.getDayOfWeek()) || except.contains(d)) continue;
+
+            OffsetDateTime startsAt = ZonedDateTime.of(d, request.getStartTime(), zone).toOffsetDateTime();
+            occurrences.add(new OffsetDateTime[]{startsAt, startsAt.plusMinutes(duration)});
+        }
+
+        if (occurrences.isEmpty()) {
+            throw new BusinessException("Series pattern produces no sessions in the selected date range.");
+        }
+
+        // one query for everything the trainer already has in the range, then all checks in memory
+        IntervalTree calendar = new IntervalTree();
+        OffsetDateTime rangeStart = occurrences.get(0)[0];
+        OffsetDateTime rangeEnd = occurrences.get(occurrences.size() - 1)[1];
+        for (Object[] row : sessionRepository.findTrainerIntervals(trainer.getId(), rangeStart, rangeEnd)) {
+            calendar.add(toMillis((OffsetDateTime) row[1]), toMillis((OffsetDateTime) row[2]), (Long) row[0]);
+        }
+
+        List<SessionSeriesConflict> conflicts = new ArrayList<>();
+        List<Session> toCreate = new ArrayList<>();
+        long pendingId = -1;
+
+        for (OffsetDateTime[] occ : occurrences) {
+            long start = toMillis(occ[0]);
+            long end = toMillis(occ[1]);
+
+            IntervalTree.Interval clash = calendar.findAnyOverlap(start, end);
+            if (clash != null) {
+                conflicts.add(new SessionSeriesConflict(occ[0], occ[1], clash.id() > 0 ? clash.id() : null));
+                continue;
+            }
+            // negative ids mark occurrences of this series, so they are checked against each other too
+            calendar.add(start, end, pendingId--);
+
+            Session s = new Session();
+            s.setStartsAt(occ[0]);
+            s.setEndsAt(occ[1]);
+            s.setCapacity(request.getCapacity());
+            s.setStatus("SCHEDULED");
+            s.setLocation(location);
+            s.setFitnessService(fitnessService);
+            s.setTrainer(trainer);
+            toCreate.add(s);
+        }
+
+        if (!conflicts.isEmpty() && !request.isSkipConflicts()) {
+            throw new BusinessException("Trainer already has a session in that time range: "
+                    + conflicts.size() + " of " + occurrences.size() + " occurrences conflict, first at "
+                    + conflicts.get(0).startsAt() + ".");
+        }
+
+        // sequence ids + hibernate.jdbc.batch_size turn this into batched inserts;
+        // a session created concurrently in the meantime is caught by the exclusion constraint
+        List<Session> saved = saveCheckingTrainerOverlap(() -> sessionRepository.saveAllAndFlush(toCreate));
+
+        List<Long> ids = new ArrayList<>(saved.size());
+        for (Session s : saved) {
+            ids.add(s.getId());
+            trainerCalendarIndex.putAfterCommit(s.getId(), trainer.getId(), s.getStartsAt(), s.getEndsAt());
+        }
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new SessionsChangedEvent(ids, location.getId()));
+        }
+
+        return new SessionSeriesResponse(occurrences.size(), ids.size(), ids, conflicts);
+    }
+
     @Override
     public SessionResponse update(Long id, UpdateSessionRequest request) {
         validateTimeRange(request.getStartsAt(), request.getEndsAt());
 
-        Session existing = sessionRepository.findById(id)
+        Session existing = sessionRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Session not found: " + id));
+        boolean wasCancelled = "CANCELLED".equalsIgnoreCase(existing.getStatus());
+        int previousCapacity = existing.getCapacity();
+        // bookings were paid with credits of the service the session had until now
+        Long bookedServiceId = existing.getFitnessService().getId();
+        Long previousLocationId = existing.getLocation().getId();
 
         Location location = locationRepository.findById(request.getLocationId())
                 .orElseThrow(() -> new NotFoundException("Location not found: " + request.getLocationId()));
@@ -88,9 +234,7 @@ public class SessionServiceImpl implements SessionService {
         Employee trainer = employeeRepository.findById(request.getTrainerEmployeeId())
                 .orElseThrow(() -> new NotFoundException("Employee (trainer) not found: " + request.getTrainerEmployeeId()));
 
-        if (sessionRepository.existsTrainerOverlap(trainer.getId(), request.getStartsAt(), request.getEndsAt(), id)) {
-            throw new BusinessException("Trainer already has a session in that time range.");
-        }
+        ensureTrainerFree(trainer.getId(), request.getStartsAt(), request.getEndsAt(), id);
 
         existing.setStartsAt(request.getStartsAt());
         existing.setEndsAt(request.getEndsAt());
@@ -100,7 +244,23 @@ public class SessionServiceImpl implements SessionService {
         existing.setFitnessService(fitnessService);
         existing.setTrainer(trainer);
 
-        Session saved = sessionRepository.save(existing);
+        Session saved = saveCheckingTrainerOverlap(() -> sessionRepository.saveAndFlush(existing));
+        if ("CANCELLED".equalsIgnoreCase(saved.getStatus())) {
+            trainerCalendarIndex.removeAfterCommit(saved.getId());
+            if (!wasCancelled) {
+                cancelReservations(saved.getId(), bookedServiceId);
+            }
+        } else {
+            trainerCalendarIndex.putAfterCommit(saved.getId(), trainer.getId(), saved.getStartsAt(), saved.getEndsAt());
+            if (saved.getCapacity() > previousCapacity) {
+                waitlistService.promote(saved.getId());
+            }
+        }
+
+        eventPublisher.publishEvent(new SessionChangedEvent(saved.getId(), location.getId()));
+        if (!previousLocationId.equals(location.getId())) {
+            eventPublisher.publishEvent(new SessionChangedEvent(saved.getId(), previousLocationId));
+        }
         return mapToResponse(saved);
     }
 
@@ -121,11 +281,48 @@ public class SessionServiceImpl implements SessionService {
     }
 
     @Override
-    public void delete(Long id) {
-        if (!sessionRepository.existsById(id)) {
-            throw new NotFoundException("Session not found: " + id);
+    public SessionCancellationResponse cancel(Long id) {
+        Session session = sessionRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + id));
+
+        if (!"CANCELLED".equalsIgnoreCase(session.getStatus())) {
+            session.setStatus("CANCELLED");
+            trainerCalendarIndex.removeAfterCommit(id);
         }
-        sessionRepository.deleteById(id);
+
+        // runs even for an already cancelled session, so a retry still refunds anything left active
+        List<SessionCancellationResponse.AffectedMember> affected =
+                cancelReservations(id, session.getFitnessService().getId());
+        eventPublisher.publishEvent(new SessionChangedEvent(id, session.getLocation().getId()));
+        return new SessionCancellationResponse(id, affected.size(), affected);
+    }
+
+    @Override
+    public void delete(Long id) {
+        Session session = sessionRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + id));
+
+        // members get their credits back before the bookings go away with the session
+        cancelReservations(id, session.getFitnessService().getId());
+        reservationRepository.deleteBySessionId(id);
+        sessionRepository.delete(session);
+        trainerCalendarIndex.removeAfterCommit(id);
+        eventPublisher.publishEvent(new SessionChangedEvent(id, session.getLocation().getId()));
+    }
+
+    // one statement: active reservations -> CANCELLED, one SESSION_CANCELLED credit back for each
+    private List<SessionCancellationResponse.AffectedMember> cancelReservations(Long sessionId, Long fitnessServiceId) {
+        // nobody waits for a class that won't happen
+        waitlistEntryRepository.deleteBySessionId(sessionId);
+
+        return reservationRepository.cancelActiveForSessionWithRefund(sessionId, fitnessServiceId, OffsetDateTime.now())
+                .stream()
+                .map(row -> new SessionCancellationResponse.AffectedMember(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        (row[2] + " " + row[3]).trim(),
+                        (String) row[4]))
+                .toList();
     }
 
     private void validateTimeRange(java.time.OffsetDateTime start, java.time.OffsetDateTime end) {
@@ -135,6 +332,40 @@ public class SessionServiceImpl implements SessionService {
         }
     }
 
+    private void ensureTrainerFree(Long trainerId, OffsetDateTime startsAt, OffsetDateTime endsAt, Long excludeId) {
+        // The index only saves the query when it finds nothing. It may lag behind another node, so a
+        // hit is confirmed against the database; the exclusion constraint guarantees no overlap either way.
+        if (trainerCalendarIndex.covers(startsAt)
+                && trainerCalendarIndex.findOverlap(trainerId, startsAt, endsAt, excludeId) != null
+                && sessionRepository.existsTrainerOverlap(trainerId, startsAt, endsAt, excludeId)) {
+            throw new BusinessException(TRAINER_OVERLAP_MESSAGE);
+        }
+    }
+
+    private <T> T saveCheckingTrainerOverlap(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (isTrainerOverlapViolation(e)) {
+                throw new BusinessException(TRAINER_OVERLAP_MESSAGE);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTrainerOverlapViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return sql.getMessage() != null && sql.getMessage().contains(TRAINER_OVERLAP_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    private static long toMillis(OffsetDateTime t) {
+        return t.toInstant().toEpochMilli();
+    }
+
     private SessionResponse mapToResponse(Session s) {
         String trainerName = s.getTrainer().getFirstName() + " " + s.getTrainer().getLastName();
 
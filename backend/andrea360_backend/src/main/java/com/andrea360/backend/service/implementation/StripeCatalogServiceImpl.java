@@ -0,0 +1,128 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.entity.FitnessService;
+import com.andrea360.backend.exception.BusinessException;
+import com.andrea360.backend.repository.StripePriceRepository;
+import com.andrea360.backend.service.StripeCatalogService;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Price;
+import com.stripe.model.Product;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PriceCreateParams;
+import com.stripe.param.PriceListParams;
+import com.stripe.param.ProductCreateParams;
+import com.stripe.param.ProductUpdateParams;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StripeCatalogServiceImpl implements StripeCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeCatalogServiceImpl.class);
+
+    private final StripePriceRepository stripePriceRepository;
+
+    // "fitnessServiceId:currency:unitAmount" -> Stripe price id
+    private final Map<String, String> priceIds = new ConcurrentHashMap<>();
+
+    @Override
+    public String resolvePriceId(FitnessService fitnessService, String currency) {
+        String cur = currency.toLowerCase();
+        long unitAmount = fitnessService.getPrice().movePointRight(2).longValueExact();
+        String key = fitnessService.getId() + ":" + cur + ":" + unitAmount;
+
+        String cached = priceIds.get(key);
+        if (cached != null) return cached;
+
+        String priceId = stripePriceRepository.findPriceId(fitnessService.getId(), cur, unitAmount)
+                .orElseGet(() -> createPrice(fitnessService, cur, unitAmount));
+
+        priceIds.put(key, priceId);
+        return priceId;
+    }
+
+    @Override
+    public void refresh(FitnessService fitnessService, boolean priceChanged, boolean nameChanged) {
+        if (priceChanged) {
+            // old versions stay valid on Stripe for sessions already created, only drop them from memory
+            String prefix = fitnessService.getId() + ":";
+            priceIds.keySet().removeIf(k -> k.startsWith(prefix));
+        }
+
+        if (nameChanged && fitnessService.getStripeProductId() != null) {
+            try {
+                Product.retrieve(fitnessService.getStripeProductId())
+                        .update(ProductUpdateParams.builder()
+                                .setName(productName(fitnessService))
+                                .build());
+            } catch (StripeException e) {
+                // cosmetic only, checkout keeps working with the old product name
+                log.warn("Cannot rename Stripe product {}: {}", fitnessService.getStripeProductId(), e.getMessage());
+            }
+        }
+    }
+
+    private String createPrice(FitnessService fitnessService, String currency, long unitAmount) {
+        // lookup key makes the price findable again if the local row is lost or another node created it
+        String lookupKey = "fs_" + fitnessService.getId() + "_" + currency + "_" + unitAmount;
+
+        try {
+            List<Price> existing = Price.list(PriceListParams.builder()
+                    .addLookupKey(lookupKey)
+                    .setActive(true)
+                    .setLimit(1L)
+                    .build()).getData();
+
+            String priceId;
+            if (!existing.isEmpty()) {
+                priceId = existing.get(0).getId();
+            } else {
+                Price price = Price.create(
+                        PriceCreateParams.builder()
+                                .setProduct(ensureProduct(fitnessService))
+                                .setCurrency(currency)
+                                .setUnitAmount(unitAmount)
+                                .setLookupKey(lookupKey)
+                                .putMetadata("fitnessServiceId", String.valueOf(fitnessService.getId()))
+                                .build(),
+                        RequestOptions.builder().setIdempotencyKey("price-" + lookupKey).build());
+                priceId = price.getId();
+            }
+
+            stripePriceRepository.insertIfMissing(fitnessService.getId(), currency, unitAmount, priceId);
+            return priceId;
+        } catch (StripeException e) {
+            throw new BusinessException("Stripe price sync failed: " + e.getMessage());
+        }
+    }
+
+    private String ensureProduct(FitnessService fitnessService) throws StripeException {
+        if (fitnessService.getStripeProductId() != null) {
+            return fitnessService.getStripeProductId();
+        }
+
+        Product product = Product.create(
+                ProductCreateParams.builder()
+                        .setName(productName(fitnessService))
+                        .putMetadata("fitnessServiceId", String.valueOf(fitnessService.getId()))
+                        .build(),
+                RequestOptions.builder().setIdempotencyKey("product-fs-" + fitnessService.getId()).build());
+
+        // managed entity, flushed with the surrounding checkout transaction
+        fitnessService.setStripeProductId(product.getId());
+        return product.getId();
+    }
+
+    private String productName(FitnessService fitnessService) {
+        return fitnessService.getName() + " credit";
+    }
+}
@@ -0,0 +1,40 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.trace.RouteTracesResponse;
+import com.andrea360.backend.dto.trace.TraceResponse;
+import com.andrea360.backend.service.TraceService;
+import com.andrea360.backend.service.tracing.TraceCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Sampled traces of this node only, the most recent tracing.recentPerRoute per route.
+@Service
+@RequiredArgsConstructor
+public class TraceServiceImpl implements TraceService {
+
+    private final TraceCollector traceCollector;
+
+    @Override
+    public List<RouteTracesResponse> getSlowest(String route, int limit) {
+        List<String> routes = route == null || route.isBlank() ? traceCollector.routes() : List.of(route);
+
+        List<RouteTracesResponse> result = new ArrayList<>();
+        for (String r : routes) {
+            List<TraceResponse> traces = traceCollector.recent(r);
+            if (traces.isEmpty()) continue;
+            List<TraceResponse> slowest = traces.stream()
+                    .sorted(Comparator.comparingDouble(TraceResponse::durationMs).reversed())
+                    .limit(Math.max(1, limit))
+                    .toList();
+            result.add(new RouteTracesResponse(r, traces.size(), slowest));
+        }
+
+        // routes with the slowest trace first
+        result.sort(Comparator.comparingDouble((RouteTracesResponse r) -> r.slowest().get(0).durationMs()).reversed());
+        return result;
+    }
+}
@@ -0,0 +1,157 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.dto.trainer.FreeSlotResponse;
+import com.andrea360.backend.dto.trainer.TrainerAgendaResponse;
+import com.andrea360.backend.exception.BusinessException;
+import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.EmployeeRepository;
+import com.andrea360.backend.repository.SessionRepository;
+import com.andrea360.backend.service.TrainerScheduleService;
+import com.andrea360.backend.service.scheduling.IntervalTree;
+import com.andrea360.backend.service.scheduling.TrainerCalendarIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TrainerScheduleServiceImpl implements TrainerScheduleService {
+
+    private static final long MAX_RANGE_DAYS = 31;
+    private static final List<String> ACTIVE_RESERVATION_STATUSES = List.of("CREATED", "CONFIRMED");
+
+    private final EmployeeRepository employeeRepository;
+    private final SessionRepository sessionRepository;
+    private final TrainerCalendarIndex trainerCalendarIndex;
+
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
+
+    @Override
+    public List<FreeSlotResponse> getFreeSlots(Long trainerId, OffsetDateTime from, OffsetDateTime to, int minMinutes) {
+        validateRange(trainerId, from, to);
+
+        List<IntervalTree.Interval> busy = trainerCalendarIndex.covers(from)
+                ? trainerCalendarIndex.busy(trainerId, from, to)
+                : loadBusy(trainerId, from, to);
+
+        long minMillis = Math.max(minMinutes, 1) * 60_000L;
+        long cursor = toMillis(from);
+        long end = toMillis(to);
+        List<FreeSlotResponse> slots = new ArrayList<>();
+
+        // busy is ordered by start; walk it once and emit the gaps
+        for (IntervalTree.Interval b : busy) {
+            if (b.start() - cursor >= minMillis) {
+                slots.add(slot(cursor, b.start(), from));
+            }
+            cursor = Math.max(cursor, b.end());
+            if (cursor >= end) break;
+        }
+        if (end - cursor >= minMillis) {
+            slots.add(slot(cursor, end, from));
+        }
+
+        return slots;
+    }
+
+    // Sessions, active reservations and member names come from one joined query; rows of a session
+    // are adjacent, so the nested response is built in a single pass.
+    @Override
+    public TrainerAgendaResponse getAgenda(Long trainerId, OffsetDateTime from, OffsetDateTime to) {
+        // default: today in the studio's time zone
+        ZoneId zone = ZoneId.of(timeZone);
+        OffsetDateTime start = from != null ? from : LocalDate.now(zone).atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime end = to != null ? to : start.plusDays(1);
+        validateRange(trainerId, start, end);
+
+        List<TrainerAgendaResponse.AgendaSession> sessions = new ArrayList<>();
+        Object[] current = null;
+        List<TrainerAgendaResponse.Attendee> attendees = new ArrayList<>();
+
+        for (Object[] row : sessionRepository.findTrainerAgendaRows(trainerId, start, end, ACTIVE_RESERVATION_STATUSES)) {
+            if (current != null && !current[0].equals(row[0])) {
+                sessions.add(agendaSession(current, attendees));
+                attendees = new ArrayList<>();
+            }
+            current = row;
+
+            if (row[9] != null) {
+                attendees.add(new TrainerAgendaResponse.Attendee(
+                        (Long) row[9],
+                        (String) row[10],
+                        (Long) row[11],
+                        (String) row[12],
+                        (String) row[13],
+                        (String) row[14]
+                ));
+            }
+        }
+        if (current != null) {
+            sessions.add(agendaSession(current, attendees));
+        }
+
+        return new TrainerAgendaResponse(trainerId, start, end, sessions);
+    }
+
+    private TrainerAgendaResponse.AgendaSession agendaSession(Object[] row, List<TrainerAgendaResponse.Attendee> attendees) {
+        return new TrainerAgendaResponse.AgendaSession(
+                (Long) row[0],
+                (OffsetDateTime) row[1],
+                (OffsetDateTime) row[2],
+                (String) row[4],
+                (Integer) row[3],
+                attendees.size(),
+                (Long) row[5],
+                (String) row[6],
+                (Long) row[7],
+                (String) row[8],
+                attendees
+        );
+    }
+
+    private void validateRange(Long trainerId, OffsetDateTime from, OffsetDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new BusinessException("'to' must be after 'from'.");
+        }
+        if (Duration.between(from, to).toDays() > MAX_RANGE_DAYS) {
+            throw new BusinessException("Range can't exceed " + MAX_RANGE_DAYS + " days.");
+        }
+        if (!employeeRepository.existsById(trainerId)) {
+            throw new NotFoundException("Employee (trainer) not found: " + trainerId);
+        }
+    }
+
+    private List<IntervalTree.Interval> loadBusy(Long trainerId, OffsetDateTime from, OffsetDateTime to) {
+        return sessionRepository.findTrainerIntervals(trainerId, from, to).stream()
+                .map(row -> new IntervalTree.Interval(
+                        toMillis((OffsetDateTime) row[1]),
+                        toMillis((OffsetDateTime) row[2]),
+                        (Long) row[0]))
+                .sorted(Comparator.comparingLong(IntervalTree.Interval::start))
+                .toList();
+    }
+
+    private FreeSlotResponse slot(long start, long end, OffsetDateTime zoneOf) {
+        return new FreeSlotResponse(
+                OffsetDateTime.ofInstant(Instant.ofEpochMilli(start), zoneOf.getOffset()),
+                OffsetDateTime.ofInstant(Instant.ofEpochMilli(end), zoneOf.getOffset()),
+                (end - start) / 60_000L
+        );
+    }
+
+    private static long toMillis(OffsetDateTime t) {
+        return t.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,175 @@
+package com.andrea360.backend.service.implementation;
+
+import com.andrea360.backend.config.RetryOnConflict;
+import com.andrea360.backend.dto.waitlist.WaitlistEntryResponse;
+import com.andrea360.backend.entity.Reservation;
+import com.andrea360.backend.entity.Session;
+import com.andrea360.backend.entity.WaitlistEntry;
+import com.andrea360.backend.event.WaitlistDroppedEvent;
+import com.andrea360.backend.event.WaitlistPromotedEvent;
+import com.andrea360.backend.exception.BusinessException;
+import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.MemberRepository;
+import com.andrea360.backend.repository.ReservationRepository;
+import com.andrea360.backend.repository.SessionRepository;
+import com.andrea360.backend.repository.WaitlistEntryRepository;
+import com.andrea360.backend.service.MemberCreditService;
+import com.andrea360.backend.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final List<String> ACTIVE_RESERVATION_STATUSES = List.of("CREATED", "CONFIRMED");
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final SessionRepository sessionRepository;
+    private final ReservationRepository reservationRepository;
+    private final MemberRepository memberRepository;
+    private final MemberCreditService memberCreditService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public WaitlistEntryResponse join(Long memberId, Long sessionId) {
+        return transactionTemplate.execute(status -> doJoin(memberId, sessionId));
+    }
+
+    private WaitlistEntryResponse doJoin(Long memberId, Long sessionId) {
+        if (!memberRepository.existsById(memberId)) {
+            throw new NotFoundException("Member not found: " + memberId);
+        }
+
+        // same version check as bookings and promotions, so "full" can't change while we decide
+        Session session = sessionRepository.findByIdForBooking(sessionId)
+                .orElseThrow(() -> new NotFoundException("Session not found: " + sessionId));
+
+        if (!"SCHEDULED".equalsIgnoreCase(session.getStatus()) || !session.getStartsAt().isAfter(OffsetDateTime.now())) {
+            throw new BusinessException("Session is not available for booking.");
+        }
+
+        if (reservationRepository.existsByMemberIdAndSessionIdAndStatusIn(memberId, sessionId, ACTIVE_RESERVATION_STATUSES)) {
+            throw new BusinessException("You already booked this session.");
+        }
+
+        long booked = reservationRepository.countBySessionIdAndStatusIn(sessionId, ACTIVE_RESERVATION_STATUSES);
+        if (booked < session.getCapacity()) {
+            throw new BusinessException("Session still has free seats, book it directly.");
+        }
+
+        if (waitlistEntryRepository.existsBySessionIdAndMemberId(sessionId, memberId)) {
+            throw new BusinessException("You are already on the waitlist for this session.");
+        }
+
+        if (memberCreditService.getBalance(memberId, session.getFitnessService().getId()) < 1) {
+            throw new BusinessException("Member does not have enough credits for this service.");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setSession(session);
+        entry.setMember(memberRepository.getReferenceById(memberId));
+        entry.setCreatedAt(OffsetDateTime.now());
+        WaitlistEntry saved = waitlistEntryRepository.save(entry);
+
+        return map(saved, waitlistEntryRepository.positionOf(sessionId, saved.getId()));
+    }
+
+    @Override
+    public void leave(Long memberId, Long sessionId) {
+        if (waitlistEntryRepository.deleteBySessionIdAndMemberId(sessionId, memberId) == 0) {
+            throw new NotFoundException("Waitlist entry not found for session: " + sessionId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getMyEntries(Long memberId) {
+        return waitlistEntryRepository.findByMemberIdWithPosition(memberId).stream()
+                .map(row -> map((WaitlistEntry) row[0], ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    // Fills free seats from the head of the queue. Runs inside the transaction that freed the seat,
+    // so the seat, the reservation and the credit debit commit or roll back together.
+    @Override
+    public int promote(Long sessionId) {
+        Session session = sessionRepository.findByIdForBooking(sessionId).orElse(null);
+        if (session == null
+                || !"SCHEDULED".equalsIgnoreCase(session.getStatus())
+                || !session.getStartsAt().isAfter(OffsetDateTime.now())) {
+            return 0;
+        }
+
+        Long serviceId = session.getFitnessService().getId();
+        long free = session.getCapacity()
+                - reservationRepository.countBySessionIdAndStatusIn(sessionId, ACTIVE_RESERVATION_STATUSES);
+        int promoted = 0;
+
+        while (free > 0) {
+            WaitlistEntry head = waitlistEntryRepository.findFirstBySessionIdOrderByIdAsc(sessionId).orElse(null);
+            if (head == null) break;
+
+            Long memberId = head.getMember().getId();
+            waitlistEntryRepository.delete(head);
+
+            // uq_reservation_member_session: a member who cancelled earlier gets the old row back
+            Reservation r = reservationRepository.findByMemberIdAndSessionId(memberId, sessionId).orElse(null);
+            if (r != null && ACTIVE_RESERVATION_STATUSES.contains(r.getStatus())) {
+                continue;
+            }
+
+            boolean reused = r != null;
+            if (!reused) {
+                r = new Reservation();
+                r.setMember(memberRepository.getReferenceById(memberId));
+                r.setSession(session);
+            }
+            r.setStatus("CREATED");
+            r.setCreatedAt(OffsetDateTime.now());
+            r.setCancelledAt(null);
+            r.setNote("Promoted from waitlist");
+            Reservation saved = reservationRepository.save(r);
+
+            if (!memberCreditService.tryConsumeCredit(memberId, serviceId, saved.getId())) {
+                if (reused) {
+                    saved.setStatus("CANCELLED");
+                    saved.setCancelledAt(OffsetDateTime.now());
+                } else {
+                    reservationRepository.delete(saved);
+                }
+                eventPublisher.publishEvent(new WaitlistDroppedEvent(memberId, sessionId));
+                continue;
+            }
+
+            eventPublisher.publishEvent(new WaitlistPromotedEvent(memberId, sessionId, saved.getId()));
+            promoted++;
+            free--;
+        }
+
+        return promoted;
+    }
+
+    private WaitlistEntryResponse map(WaitlistEntry w, long position) {
+        Session s = w.getSession();
+        return new WaitlistEntryResponse(
+                s.getId(),
+                s.getStartsAt(),
+                s.getFitnessService().getId(),
+                s.getFitnessService().getName(),
+                position,
+                w.getCreatedAt()
+        );
+    }
+}
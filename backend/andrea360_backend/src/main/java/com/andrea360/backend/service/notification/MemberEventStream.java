@@ -0,0 +1,64 @@
+package com.andrea360.backend.service.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+// Open server-sent event streams per member (a member can have several tabs open).
+// SseEmitter runs on async servlet support, so an idle stream holds no request thread.
+@Component
+public class MemberEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberEventStream.class);
+
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long memberId) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Set<SseEmitter> set = emitters.computeIfAbsent(memberId, k -> new CopyOnWriteArraySet<>());
+        set.add(emitter);
+
+        Runnable remove = () -> {
+            set.remove(emitter);
+            emitters.computeIfPresent(memberId, (k, v) -> v.isEmpty() ? null : v);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        return emitter;
+    }
+
+    // lets listeners skip building a payload nobody would receive
+    public boolean hasSubscribers(Long memberId) {
+        return emitters.containsKey(memberId);
+    }
+
+    public boolean hasAnySubscribers() {
+        return !emitters.isEmpty();
+    }
+
+    public void send(Long memberId, String eventName, Object payload) {
+        Set<SseEmitter> set = emitters.get(memberId);
+        if (set == null) return;
+
+        for (SseEmitter emitter : set) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(payload));
+            } catch (IOException | IllegalStateException e) {
+                // client went away, the completion callback cleans up
+                log.debug("Dropping event stream of member {}: {}", memberId, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.andrea360.backend.service.notification;
+
+import com.andrea360.backend.dto.payment.PaymentPaidMessage;
+import com.andrea360.backend.entity.enums.PaymentStatus;
+import com.andrea360.backend.event.ClusterInvalidationEvent;
+import com.andrea360.backend.event.PaymentPaidEvent;
+import com.andrea360.backend.event.WaitlistDroppedEvent;
+import com.andrea360.backend.event.WaitlistPromotedEvent;
+import com.andrea360.backend.repository.PaymentRepository;
+import com.andrea360.backend.repository.ReservationRepository;
+import com.andrea360.backend.service.MemberCreditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Pushes domain events to the member's open streams once the change is committed.
+@Component
+@RequiredArgsConstructor
+public class MemberNotificationListener {
+
+    private final MemberEventStream memberEventStream;
+    private final MemberCreditService memberCreditService;
+    private final PaymentRepository paymentRepository;
+    private final ReservationRepository reservationRepository;
+
+    @TransactionalEventListener
+    public void onWaitlistPromoted(WaitlistPromotedEvent event) {
+        memberEventStream.send(event.memberId(), "waitlist-promoted", event);
+    }
+
+    @TransactionalEventListener
+    public void onWaitlistDropped(WaitlistDroppedEvent event) {
+        memberEventStream.send(event.memberId(), "waitlist-dropped", event);
+    }
+
+    // the success page waits for this instead of calling /api/payments/stripe/confirm;
+    // new transaction for the balance read, the paying one is already committed
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPaymentPaid(PaymentPaidEvent event) {
+        if (!memberEventStream.hasSubscribers(event.memberId())) return;
+
+        int credits = memberCreditService.getBalance(event.memberId(), event.fitnessServiceId());
+        memberEventStream.send(event.memberId(), "payment-paid", new PaymentPaidMessage(
+                event.paymentId(),
+                PaymentStatus.PAID.name(),
+                event.fitnessServiceId(),
+                event.creditsAdded(),
+                credits
+        ));
+    }
+
+    // The same events committed on another node; only the ids travel over the bus, the rest is read back.
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onRemoteChange(ClusterInvalidationEvent event) {
+        if (event.id() == null || !memberEventStream.hasAnySubscribers()) return;
+
+        switch (event.kind()) {
+            case PAYMENT -> paymentRepository.findById(event.id())
+                    .filter(p -> p.getStatus() == PaymentStatus.PAID)
+                    .ifPresent(p -> onPaymentPaid(new PaymentPaidEvent(
+                            p.getMember().getId(),
+                            p.getId(),
+                            p.getFitnessService().getId(),
+                            p.getQuantity() == null ? 1 : p.getQuantity())));
+            case RESERVATION -> reservationRepository.findById(event.id())
+                    .ifPresent(r -> onWaitlistPromoted(new WaitlistPromotedEvent(
+                            r.getMember().getId(),
+                            r.getSession().getId(),
+                            r.getId())));
+            default -> {
+                // schedule and reference data, not member specific
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.andrea360.backend.service.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounds how many broker messages may wait for one STOMP client on the outbound channel.
+// Beyond the limit topic messages for that client are held back and conflated: only the latest
+// one per destination and conflation key (the session id of a seat count) is kept, and it goes out
+// as soon as the client has drained a slot. Seat messages carry absolute counts, so the client ends
+// up with the newest state without getting every step. Frames other than MESSAGE (CONNECTED,
+// RECEIPT, ERROR) are never held. A socket that stays blocked is cut by the transport limits in
+// WebSocketConfig.
+@Component
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundBackpressureInterceptor.class);
+
+    // native header set by publishers whose messages for one destination concern different entities
+    public static final String CONFLATION_KEY_HEADER = "conflation-key";
+
+    // marks a held message re-sent by drain(); its slot is already counted
+    private static final String RELEASED_HEADER = "backpressureReleased";
+
+    private final Map<String, AtomicInteger> pendingBySession = new ConcurrentHashMap<>();
+    // sessionId -> destination + key -> latest held message, oldest key first
+    private final Map<String, Map<String, Message<?>>> heldBySession = new ConcurrentHashMap<>();
+    private final AtomicLong conflated = new AtomicLong();
+
+    @Value("${realtime.outbound.maxPendingPerClient:32}")
+    private int maxPendingPerClient;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = conflatableSessionId(message);
+        if (sessionId == null || message.getHeaders().containsKey(RELEASED_HEADER)) return message;
+
+        AtomicInteger pending = pendingBySession.computeIfAbsent(sessionId, k -> new AtomicInteger());
+        if (pending.incrementAndGet() > maxPendingPerClient) {
+            pending.decrementAndGet();
+            hold(sessionId, message);
+            return null;
+        }
+        return message;
+    }
+
+    // not handed to the executor (e.g. rejected), so it will never be handled
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent || ex != null) {
+            release(message, channel);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        release(message, channel);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        pendingBySession.remove(event.getSessionId());
+        heldBySession.remove(event.getSessionId());
+    }
+
+    private void hold(String sessionId, Message<?> message) {
+        Map<String, Message<?>> held = heldBySession.computeIfAbsent(sessionId, k -> new LinkedHashMap<>());
+        String key = SimpMessageHeaderAccessor.getDestination(message.getHeaders())
+                + "|" + SimpMessageHeaderAccessor.getFirstNativeHeader(CONFLATION_KEY_HEADER, message.getHeaders());
+        synchronized (held) {
+            // a newer state for the same key replaces the one still waiting, and keeps its place
+            if (held.replace(key, message) == null) held.put(key, message);
+        }
+
+        long total = conflated.incrementAndGet();
+        if (total % 1000 == 1) {
+            log.debug("Holding back messages for slow STOMP client {} ({} held so far)", sessionId, total);
+        }
+    }
+
+    private void release(Message<?> message, MessageChannel channel) {
+        String sessionId = conflatableSessionId(message);
+        if (sessionId == null) return;
+        AtomicInteger pending = pendingBySession.get(sessionId);
+        if (pending == null) return;
+        pending.decrementAndGet();
+        drain(sessionId, pending, channel);
+    }
+
+    // the slot that just freed goes to the oldest held message of the client
+    private void drain(String sessionId, AtomicInteger pending, MessageChannel channel) {
+        Map<String, Message<?>> held = heldBySession.get(sessionId);
+        if (held == null) return;
+
+        if (pending.incrementAndGet() > maxPendingPerClient) {
+            pending.decrementAndGet();
+            return;
+        }
+
+        Message<?> next = null;
+        synchronized (held) {
+            Iterator<Message<?>> it = held.values().iterator();
+            if (it.hasNext()) {
+                next = it.next();
+                it.remove();
+            }
+        }
+        if (next == null) {
+            pending.decrementAndGet();
+            return;
+        }
+
+        channel.send(MessageBuilder.fromMessage(next).setHeader(RELEASED_HEADER, Boolean.TRUE).build());
+    }
+
+    private static String conflatableSessionId(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+}
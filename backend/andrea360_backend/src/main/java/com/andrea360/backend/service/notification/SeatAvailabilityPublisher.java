@@ -0,0 +1,137 @@
+package com.andrea360.backend.service.notification;
+
+import com.andrea360.backend.dto.session.SeatAvailabilityMessage;
+import com.andrea360.backend.event.ClusterInvalidationEvent;
+import com.andrea360.backend.event.SessionChangedEvent;
+import com.andrea360.backend.event.SessionsChangedEvent;
+import com.andrea360.backend.repository.SessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Coalesces committed session/booking changes and pushes the latest seat count of every changed
+// session once per window to its STOMP topics. A rush of bookings on one class costs one query
+// and one message per topic per window, no matter how many bookings landed in it.
+// Each node pushes to its own subscribers, so bookings made on other nodes are picked up from the
+// invalidation bus as well.
+@Component
+@RequiredArgsConstructor
+public class SeatAvailabilityPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityPublisher.class);
+
+    private static final List<String> ACTIVE_RESERVATION_STATUSES = List.of("CREATED", "CONFIRMED");
+    // keeps the IN list of one seat query reasonable after a long stall
+    private static final int MAX_SESSIONS_PER_QUERY = 500;
+
+    private final SessionRepository sessionRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // sessionId -> locationId of the latest change, drained by flush()
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.timeZone:Europe/Belgrade}")
+    private String timeZone;
+
+    @TransactionalEventListener
+    public void onSessionChanged(SessionChangedEvent event) {
+        if (event.sessionId() == null) return;
+        pending.put(event.sessionId(), event.locationId());
+    }
+
+    @TransactionalEventListener
+    public void onSessionsChanged(SessionsChangedEvent event) {
+        event.sessionIds().forEach(id -> pending.put(id, event.locationId()));
+    }
+
+    @EventListener
+    public void onRemoteChange(ClusterInvalidationEvent event) {
+        if (event.kind() != ClusterInvalidationEvent.Kind.SESSION || event.id() == null) return;
+        pending.put(event.id(), event.locationId());
+    }
+
+    @Scheduled(fixedDelayString = "${realtime.seats.windowMs:100}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        // drain; a change that arrives meanwhile stays pending for the next window
+        Map<Long, Long> batch = new HashMap<>();
+        for (Long sessionId : new ArrayList<>(pending.keySet())) {
+            Long locationId = pending.remove(sessionId);
+            if (locationId != null) batch.put(sessionId, locationId);
+        }
+
+        List<Long> ids = new ArrayList<>(batch.keySet());
+        for (int i = 0; i < ids.size(); i += MAX_SESSIONS_PER_QUERY) {
+            List<Long> chunk = ids.subList(i, Math.min(i + MAX_SESSIONS_PER_QUERY, ids.size()));
+            try {
+                push(chunk, batch);
+            } catch (Exception e) {
+                log.warn("Seat availability push failed for {} sessions", chunk.size(), e);
+            }
+        }
+    }
+
+    private void push(List<Long> sessionIds, Map<Long, Long> locations) {
+        ZoneId zone = ZoneId.of(timeZone);
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : sessionRepository.findSeatStates(sessionIds, ACTIVE_RESERVATION_STATUSES)) {
+            rows.put((Long) row[0], row);
+        }
+
+        for (Long sessionId : sessionIds) {
+            Object[] row = rows.get(sessionId);
+            if (row == null) {
+                // deleted; subscribers of the session topic learn it from the status
+                messagingTemplate.convertAndSend(sessionTopic(sessionId),
+                        new SeatAvailabilityMessage(sessionId, locations.get(sessionId), null, "DELETED", 0, 0, 0),
+                        conflationKey(sessionId));
+                continue;
+            }
+
+            Long locationId = (Long) row[1];
+            OffsetDateTime startsAt = (OffsetDateTime) row[2];
+            int capacity = (Integer) row[4];
+            int booked = ((Number) row[5]).intValue();
+
+            SeatAvailabilityMessage message = new SeatAvailabilityMessage(
+                    sessionId,
+                    locationId,
+                    startsAt,
+                    (String) row[3],
+                    capacity,
+                    booked,
+                    Math.max(capacity - booked, 0)
+            );
+
+            LocalDate day = startsAt.atZoneSameInstant(zone).toLocalDate();
+            messagingTemplate.convertAndSend(sessionTopic(sessionId), message, conflationKey(sessionId));
+            messagingTemplate.convertAndSend("/topic/locations/" + locationId + "/days/" + day, message,
+                    conflationKey(sessionId));
+        }
+    }
+
+    private static String sessionTopic(Long sessionId) {
+        return "/topic/sessions/" + sessionId;
+    }
+
+    // a day topic carries many sessions; a slow client still gets the latest count of each
+    private static Map<String, Object> conflationKey(Long sessionId) {
+        return Map.of(OutboundBackpressureInterceptor.CONFLATION_KEY_HEADER, String.valueOf(sessionId));
+    }
+}
@@ -0,0 +1,175 @@
+package com.andrea360.backend.service.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// AVL tree of half-open intervals [start, end), ordered by (start, id), each node keeping the max end
+// of its subtree so overlap queries skip whole branches. Not thread-safe, callers synchronize.
+public class IntervalTree {
+
+    public record Interval(long start, long end, long id) {}
+
+    private static final class Node {
+        final Interval interval;
+        Node left;
+        Node right;
+        int height = 1;
+        long maxEnd;
+
+        Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void add(long start, long end, long id) {
+        root = insert(root, new Interval(start, end, id));
+        size++;
+    }
+
+    public boolean remove(long start, long end, long id) {
+        int before = size;
+        root = delete(root, new Interval(start, end, id));
+        return size < before;
+    }
+
+    public boolean overlaps(long start, long end) {
+        return firstOverlap(root, start, end) != null;
+    }
+
+    // any interval overlapping [start, end), or null
+    public Interval findAnyOverlap(long start, long end) {
+        return firstOverlap(root, start, end);
+    }
+
+    // all intervals overlapping [start, end), ordered by start
+    public List<Interval> findOverlapping(long start, long end) {
+        List<Interval> out = new ArrayList<>();
+        collect(root, start, end, out);
+        return out;
+    }
+
+    private Interval firstOverlap(Node n, long start, long end) {
+        while (n != null) {
+            if (n.interval.start() < end && n.interval.end() > start) {
+                return n.interval;
+            }
+            // if the left subtree reaches past start and has no overlap, the right subtree can't have one either
+            if (n.left != null && n.left.maxEnd > start) {
+                n = n.left;
+            } else if (n.interval.start() < end) {
+                n = n.right;
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void collect(Node n, long start, long end, List<Interval> out) {
+        if (n == null || n.maxEnd <= start) return;
+
+        collect(n.left, start, end, out);
+
+        if (n.interval.start() >= end) return;
+        if (n.interval.end() > start) out.add(n.interval);
+
+        collect(n.right, start, end, out);
+    }
+
+    private static int compare(Interval a, Interval b) {
+        int c = Long.compare(a.start(), b.start());
+        return c != 0 ? c : Long.compare(a.id(), b.id());
+    }
+
+    private Node insert(Node n, Interval iv) {
+        if (n == null) return new Node(iv);
+
+        if (compare(iv, n.interval) < 0) n.left = insert(n.left, iv);
+        else n.right = insert(n.right, iv);
+
+        return rebalance(n);
+    }
+
+    private Node delete(Node n, Interval iv) {
+        if (n == null) return null;
+
+        int c = compare(iv, n.interval);
+        if (c < 0) {
+            n.left = delete(n.left, iv);
+        } else if (c > 0) {
+            n.right = delete(n.right, iv);
+        } else {
+            size--;
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+
+            Node min = n.right;
+            while (min.left != null) min = min.left;
+
+            Node replacement = new Node(min.interval);
+            replacement.left = n.left;
+            replacement.right = removeMin(n.right);
+            return rebalance(replacement);
+        }
+        return rebalance(n);
+    }
+
+    private Node removeMin(Node n) {
+        if (n.left == null) return n.right;
+        n.left = removeMin(n.left);
+        return rebalance(n);
+    }
+
+    private Node rebalance(Node n) {
+        update(n);
+        int balance = height(n.left) - height(n.right);
+
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) n.left = rotateLeft(n.left);
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) n.right = rotateRight(n.right);
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static void update(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        long max = n.interval.end();
+        if (n.left != null) max = Math.max(max, n.left.maxEnd);
+        if (n.right != null) max = Math.max(max, n.right.maxEnd);
+        n.maxEnd = max;
+    }
+}
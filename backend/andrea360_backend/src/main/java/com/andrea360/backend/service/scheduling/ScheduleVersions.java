@@ -0,0 +1,87 @@
+package com.andrea360.backend.service.scheduling;
+
+import com.andrea360.backend.event.ClusterInvalidationEvent;
+import com.andrea360.backend.event.ClusterResyncEvent;
+import com.andrea360.backend.event.EmployeeChangedEvent;
+import com.andrea360.backend.event.FitnessServiceChangedEvent;
+import com.andrea360.backend.event.LocationChangedEvent;
+import com.andrea360.backend.event.SessionChangedEvent;
+import com.andrea360.backend.event.SessionsChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-location schedule version counters behind the week-view ETags. Bumped after every committed
+// session or booking change, on this node or (via the invalidation bus) on another one. The epoch is unique per process, so ETags from another node or from
+// before a restart never match.
+@Component
+public class ScheduleVersions {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicLong all = new AtomicLong();
+    private final Map<Long, AtomicLong> byLocation = new ConcurrentHashMap<>();
+
+    public String epoch() {
+        return epoch;
+    }
+
+    // locationId == null -> version of the all-locations view
+    public long current(Long locationId) {
+        if (locationId == null) return all.get();
+        AtomicLong v = byLocation.get(locationId);
+        return v == null ? 0L : v.get();
+    }
+
+    public void bump(Long locationId) {
+        if (locationId != null) {
+            byLocation.computeIfAbsent(locationId, k -> new AtomicLong()).incrementAndGet();
+        }
+        all.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChanged(SessionChangedEvent event) {
+        bump(event.locationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionsChanged(SessionsChangedEvent event) {
+        bump(event.locationId());
+    }
+
+    // service, trainer and location names are part of the week view too
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFitnessServiceChanged(FitnessServiceChangedEvent event) {
+        bump(event.locationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationChanged(LocationChangedEvent event) {
+        bump(event.locationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        bump(event.locationId());
+    }
+
+    @EventListener
+    public void onRemoteChange(ClusterInvalidationEvent event) {
+        // payments and promotions reach the week view as session changes of their own
+        if (event.kind() == ClusterInvalidationEvent.Kind.PAYMENT
+                || event.kind() == ClusterInvalidationEvent.Kind.RESERVATION) return;
+        bump(event.locationId());
+    }
+
+    @EventListener
+    public void onResync(ClusterResyncEvent event) {
+        byLocation.values().forEach(AtomicLong::incrementAndGet);
+        all.incrementAndGet();
+    }
+}
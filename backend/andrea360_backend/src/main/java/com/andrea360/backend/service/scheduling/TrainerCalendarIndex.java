@@ -0,0 +1,204 @@
+package com.andrea360.backend.service.scheduling;
+
+import com.andrea360.backend.event.ClusterInvalidationEvent;
+import com.andrea360.backend.event.ClusterResyncEvent;
+import com.andrea360.backend.repository.SessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Per-trainer interval trees of non-cancelled sessions, used for fast overlap answers and free-slot search.
+// Only sessions ending after the horizon are indexed; callers fall back to the database
+// for anything before covers() returns true. The horizon moves forward as prune() drops past sessions. The database (ex_sessions_trainer_no_overlap) stays
+// the source of truth. Sessions changed by other nodes are re-read when the invalidation bus reports them.
+@Component
+@RequiredArgsConstructor
+public class TrainerCalendarIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainerCalendarIndex.class);
+
+    private record Entry(long trainerId, long start, long end) {}
+
+    private final SessionRepository sessionRepository;
+
+    @Value("${scheduling.index.historyDays:1}")
+    private long historyDays;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntervalTree> trees = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private volatile long horizon = Long.MAX_VALUE;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        OffsetDateTime from = OffsetDateTime.now().minusDays(historyDays);
+        List<Object[]> rows = sessionRepository.findIndexableAfter(from);
+
+        lock.writeLock().lock();
+        try {
+            trees.clear();
+            entries.clear();
+            for (Object[] row : rows) {
+                put((Long) row[0], (Long) row[1], toMillis((OffsetDateTime) row[2]), toMillis((OffsetDateTime) row[3]));
+            }
+            horizon = toMillis(from);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trainer calendar index loaded with {} sessions", rows.size());
+    }
+
+    public boolean covers(OffsetDateTime from) {
+        return toMillis(from) >= horizon;
+    }
+
+    // id of some session of the trainer overlapping [start, end), other than excludeId; null if none
+    public Long findOverlap(Long trainerId, OffsetDateTime start, OffsetDateTime end, Long excludeId) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = trees.get(trainerId);
+            if (tree == null) return null;
+
+            if (excludeId == null) {
+                IntervalTree.Interval hit = tree.findAnyOverlap(toMillis(start), toMillis(end));
+                return hit == null ? null : hit.id();
+            }
+            return tree.findOverlapping(toMillis(start), toMillis(end)).stream()
+                    .map(IntervalTree.Interval::id)
+                    .filter(id -> !id.equals(excludeId))
+                    .findFirst()
+                    .orElse(null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // busy intervals of the trainer overlapping [from, to), ordered by start
+    public List<IntervalTree.Interval> busy(Long trainerId, OffsetDateTime from, OffsetDateTime to) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = trees.get(trainerId);
+            return tree == null ? List.of() : tree.findOverlapping(toMillis(from), toMillis(to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // index changes are applied only once the writing transaction commits
+    public void putAfterCommit(Long sessionId, Long trainerId, OffsetDateTime start, OffsetDateTime end) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeEntry(sessionId);
+                put(sessionId, trainerId, toMillis(start), toMillis(end));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(Long sessionId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeEntry(sessionId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @EventListener
+    public void onRemoteChange(ClusterInvalidationEvent event) {
+        // id == null is an archival sweep, those sessions lie far behind the horizon
+        if (event.kind() != ClusterInvalidationEvent.Kind.SESSION || event.id() == null) return;
+
+        List<Object[]> rows = sessionRepository.findIndexableById(event.id());
+        lock.writeLock().lock();
+        try {
+            removeEntry(event.id());
+            for (Object[] row : rows) {
+                long end = toMillis((OffsetDateTime) row[3]);
+                if (end > horizon) {
+                    put((Long) row[0], (Long) row[1], toMillis((OffsetDateTime) row[2]), end);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onResync(ClusterResyncEvent event) {
+        load();
+    }
+
+    // moves the horizon along, so sessions that are over don't pile up in the trees
+    @Scheduled(fixedDelayString = "${scheduling.index.pruneMs:3600000}", initialDelayString = "${scheduling.index.pruneMs:3600000}")
+    public void prune() {
+        long from = toMillis(OffsetDateTime.now().minusDays(historyDays));
+
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            for (Long sessionId : new ArrayList<>(entries.keySet())) {
+                if (entries.get(sessionId).end() <= from) {
+                    removeEntry(sessionId);
+                    removed++;
+                }
+            }
+            horizon = Math.max(horizon, from);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Trainer calendar index pruned {} sessions", removed);
+    }
+
+    private void put(long sessionId, long trainerId, long start, long end) {
+        trees.computeIfAbsent(trainerId, k -> new IntervalTree()).add(start, end, sessionId);
+        entries.put(sessionId, new Entry(trainerId, start, end));
+    }
+
+    private void removeEntry(Long sessionId) {
+        Entry old = entries.remove(sessionId);
+        if (old == null) return;
+
+        IntervalTree tree = trees.get(old.trainerId());
+        if (tree != null) {
+            tree.remove(old.start(), old.end(), sessionId);
+            if (tree.size() == 0) trees.remove(old.trainerId());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(OffsetDateTime t) {
+        return t.toInstant().toEpochMilli();
+    }
+}
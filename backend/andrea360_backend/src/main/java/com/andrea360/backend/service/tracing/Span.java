@@ -0,0 +1,26 @@
+package com.andrea360.backend.service.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One timed step of a trace. SQL counters only hold statements run while this span was the innermost one.
+public final class Span {
+
+    final String layer;
+    final String name;
+    final long startNanos;
+    long endNanos;
+    int sqlCount;
+    long sqlNanos;
+    final List<Span> children = new ArrayList<>();
+
+    Span(String layer, String name, long startNanos) {
+        this.layer = layer;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+
+    long durationNanos() {
+        return (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+    }
+}
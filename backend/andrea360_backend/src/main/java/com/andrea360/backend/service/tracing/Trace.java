@@ -0,0 +1,66 @@
+package com.andrea360.backend.service.tracing;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+
+// Spans of one sampled request, built on the request thread only.
+public final class Trace {
+
+    // a repository call in a loop must not grow a trace without bound
+    private static final int MAX_SPANS = 2000;
+
+    final String id = UUID.randomUUID().toString();
+    final String method;
+    final OffsetDateTime startedAt = OffsetDateTime.now();
+    final Span root;
+    String route;
+    int status;
+    int spanCount;
+    int droppedSpans;
+    long controllerReturnedNanos;
+
+    private final Deque<Span> stack = new ArrayDeque<>();
+
+    Trace(String method, String path) {
+        this.method = method;
+        this.root = new Span("http", method + " " + path, System.nanoTime());
+        stack.push(root);
+    }
+
+    Span push(String layer, String name) {
+        if (spanCount >= MAX_SPANS) {
+            droppedSpans++;
+            return null;
+        }
+        spanCount++;
+        Span span = new Span(layer, name, System.nanoTime());
+        stack.peek().children.add(span);
+        stack.push(span);
+        return span;
+    }
+
+    void pop(Span span) {
+        span.endNanos = System.nanoTime();
+        // unwinds spans left open by an exception further down as well
+        while (stack.size() > 1) {
+            Span top = stack.pop();
+            if (top == span) break;
+            if (top.endNanos == 0) top.endNanos = span.endNanos;
+        }
+        if (Tracer.CONTROLLER.equals(span.layer)) {
+            controllerReturnedNanos = span.endNanos;
+        }
+    }
+
+    Span current() {
+        return stack.peek();
+    }
+
+    void finish(String route, int status) {
+        this.route = route;
+        this.status = status;
+        root.endNanos = System.nanoTime();
+    }
+}
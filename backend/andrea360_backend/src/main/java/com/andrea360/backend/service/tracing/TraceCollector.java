@@ -0,0 +1,161 @@
+package com.andrea360.backend.service.tracing;
+
+import com.andrea360.backend.dto.trace.TraceResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Sampling decision and the exporters: the last tracing.recentPerRoute traces of every route stay in
+// memory for the debug endpoint, and with tracing.file set every trace is appended there as one JSON
+// line. The file is written off the request thread; traces are dropped when the writer falls behind.
+@Component
+@RequiredArgsConstructor
+public class TraceCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceCollector.class);
+
+    private final JsonMapper jsonMapper;
+
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.sampleRate:0.05}")
+    private double sampleRate;
+
+    @Value("${tracing.recentPerRoute:200}")
+    private int recentPerRoute;
+
+    @Value("${tracing.file:}")
+    private String file;
+
+    private final Map<String, Deque<TraceResponse>> recent = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor fileWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10_000), r -> {
+                Thread t = new Thread(r, "trace-file-writer");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+    private BufferedWriter writer; // only touched by the writer thread
+
+    public boolean sample() {
+        return enabled && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    void complete(Trace trace) {
+        TraceResponse response = toResponse(trace);
+
+        Deque<TraceResponse> traces = recent.computeIfAbsent(response.route(), k -> new ArrayDeque<>());
+        synchronized (traces) {
+            traces.addLast(response);
+            while (traces.size() > recentPerRoute) traces.removeFirst();
+        }
+
+        if (!file.isBlank()) {
+            fileWriter.execute(() -> append(response));
+        }
+    }
+
+    public List<String> routes() {
+        return new ArrayList<>(recent.keySet());
+    }
+
+    public List<TraceResponse> recent(String route) {
+        Deque<TraceResponse> traces = recent.get(route);
+        if (traces == null) return List.of();
+        synchronized (traces) {
+            return new ArrayList<>(traces);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        fileWriter.shutdown();
+        fileWriter.awaitTermination(5, TimeUnit.SECONDS);
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // shutting down anyway
+            }
+        }
+    }
+
+    private void append(TraceResponse response) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(Path.of(file), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(jsonMapper.writeValueAsString(response));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException | JacksonException e) {
+            log.warn("Writing trace to {} failed: {}", file, e.getMessage());
+        }
+    }
+
+    private static TraceResponse toResponse(Trace trace) {
+        int[] sqlCount = new int[1];
+        long[] sqlNanos = new long[1];
+        TraceResponse.SpanNode root = toNode(trace.root, sqlCount, sqlNanos);
+        return new TraceResponse(
+                trace.id,
+                trace.route,
+                trace.status,
+                trace.startedAt,
+                root.durationMs(),
+                sqlCount[0],
+                millis(sqlNanos[0]),
+                trace.droppedSpans,
+                root
+        );
+    }
+
+    private static TraceResponse.SpanNode toNode(Span span, int[] sqlCount, long[] sqlNanos) {
+        sqlCount[0] += span.sqlCount;
+        sqlNanos[0] += span.sqlNanos;
+
+        List<TraceResponse.SpanNode> children = new ArrayList<>(span.children.size());
+        long childNanos = 0;
+        for (Span child : span.children) {
+            children.add(toNode(child, sqlCount, sqlNanos));
+            childNanos += child.durationNanos();
+        }
+
+        long duration = span.durationNanos();
+        return new TraceResponse.SpanNode(
+                span.layer,
+                span.name,
+                millis(duration),
+                millis(Math.max(0, duration - childNanos)),
+                span.sqlCount,
+                millis(span.sqlNanos),
+                children
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
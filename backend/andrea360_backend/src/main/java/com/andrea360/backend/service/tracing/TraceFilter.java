@@ -0,0 +1,45 @@
+package com.andrea360.backend.service.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Root span of a sampled request. Runs ahead of Spring Security, so authentication (BCrypt in
+// httpBasic) is part of the trace. Traces are grouped by the matched route pattern; requests that
+// never reached a handler (rejected by security, 404) share one bucket per method.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class TraceFilter extends OncePerRequestFilter {
+
+    private final TraceCollector collector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!collector.sample()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Trace trace = new Trace(request.getMethod(), request.getRequestURI());
+        Tracer.begin(trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Tracer.clear();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            trace.finish(request.getMethod() + " " + (pattern != null ? pattern : "(unmatched)"), response.getStatus());
+            collector.complete(trace);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.andrea360.backend.service.tracing;
+
+// Entry points for the instrumentation. Everything is a no-op on threads without a sampled trace,
+// so unsampled requests and background jobs only pay for a ThreadLocal lookup.
+public final class Tracer {
+
+    public static final String CONTROLLER = "controller";
+    public static final String SERVICE = "service";
+    public static final String REPOSITORY = "repository";
+    public static final String SECURITY = "security";
+    public static final String STRIPE = "stripe";
+    public static final String JSON = "json";
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private Tracer() {
+    }
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    public static Span start(String layer, String name) {
+        Trace trace = CURRENT.get();
+        return trace == null ? null : trace.push(layer, name);
+    }
+
+    public static void finish(Span span) {
+        Trace trace = CURRENT.get();
+        if (trace != null && span != null) trace.pop(span);
+    }
+
+    public static void recordSql(long nanos) {
+        Trace trace = CURRENT.get();
+        if (trace == null) return;
+        Span span = trace.current();
+        span.sqlCount++;
+        span.sqlNanos += nanos;
+    }
+
+    // Response body writing happens after the controller method returned and before postHandle;
+    // recorded afterwards as a sibling of the controller span.
+    public static void responseWritten() {
+        Trace trace = CURRENT.get();
+        if (trace == null || trace.controllerReturnedNanos == 0) return;
+        Span span = new Span(JSON, "write response body", trace.controllerReturnedNanos);
+        span.endNanos = System.nanoTime();
+        trace.root.children.add(span);
+        trace.controllerReturnedNanos = 0;
+    }
+
+    static void begin(Trace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,31 @@
+package com.andrea360.backend.service.tracing;
+
+import org.hibernate.SessionEventListener;
+
+// Registered through hibernate.session.events.auto, one instance per Hibernate session. Charges
+// every statement, including lazy loads, to the innermost span open at the time.
+public class TracingSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        Tracer.recordSql(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        Tracer.recordSql(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,31 @@
+package com.andrea360.backend.service.tracing;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.HttpURLConnectionClient;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import com.stripe.net.StripeResponseStream;
+
+// Stripe's default HTTP client with a span per API call (installed in StripeConfig).
+public class TracingStripeHttpClient extends HttpURLConnectionClient {
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws ApiConnectionException {
+        Span span = Tracer.start(Tracer.STRIPE, request.method() + " " + request.url().getPath());
+        try {
+            return super.request(request);
+        } finally {
+            Tracer.finish(span);
+        }
+    }
+
+    @Override
+    public StripeResponseStream requestStream(StripeRequest request) throws ApiConnectionException {
+        Span span = Tracer.start(Tracer.STRIPE, request.method() + " " + request.url().getPath());
+        try {
+            return super.requestStream(request);
+        } finally {
+            Tracer.finish(span);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Trainer double booking is rejected by Postgres itself, under any concurrency.
+-- Fails if existing rows already overlap; those have to be fixed before migrating.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE sessions
+    ADD COLUMN IF NOT EXISTS time_range TSTZRANGE
+        GENERATED ALWAYS AS (tstzrange(starts_at, ends_at, '[)')) STORED;
+
+-- cancelled sessions no longer block the trainer
+ALTER TABLE sessions
+    ADD CONSTRAINT ex_sessions_trainer_no_overlap
+        EXCLUDE USING gist (trainer_employee_id WITH =, time_range WITH &&)
+        WHERE (upper(status) <> 'CANCELLED');
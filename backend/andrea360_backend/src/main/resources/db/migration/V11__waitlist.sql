@@ -0,0 +1,14 @@
+-- Per-session waitlist; position is the id order within a session.
+CREATE TABLE waitlist_entries (
+    id         BIGSERIAL    NOT NULL,
+    session_id BIGINT       NOT NULL,
+    member_id  BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_waitlist_entries PRIMARY KEY (id),
+    CONSTRAINT uq_waitlist_session_member UNIQUE (session_id, member_id),
+    CONSTRAINT fk_waitlist_session FOREIGN KEY (session_id) REFERENCES sessions (id),
+    CONSTRAINT fk_waitlist_member FOREIGN KEY (member_id) REFERENCES members (id)
+);
+
+-- head of queue lookup and position counting
+CREATE INDEX idx_waitlist_session_order ON waitlist_entries (session_id, id);
@@ -0,0 +1,4 @@
+-- Optimistic concurrency for bookings and credit debits (JPA @Version).
+ALTER TABLE sessions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE reservations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE member_credits ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,91 @@
+-- Sessions that ended before the retention window move here together with their reservations
+-- (ArchiveServiceImpl). The hot tables only keep recent and future data, so their indexes stay
+-- the same size as years of history pile up. Both archive tables are range-partitioned by month
+-- on the session start, old months can be detached and dumped without touching the rest.
+--
+-- The hot tables themselves are not partitioned: a partitioned table needs the partition key in
+-- every unique constraint, which breaks the FKs to sessions(id) and ex_sessions_trainer_no_overlap.
+CREATE TABLE sessions_archive (
+    id                  BIGINT       NOT NULL,
+    starts_at           TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    ends_at             TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    capacity            INTEGER      NOT NULL,
+    status              VARCHAR(30)  NOT NULL,
+    location_id         BIGINT       NOT NULL,
+    fitness_service_id  BIGINT       NOT NULL,
+    trainer_employee_id BIGINT       NOT NULL,
+    archived_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_sessions_archive PRIMARY KEY (id, starts_at)
+) PARTITION BY RANGE (starts_at);
+
+CREATE INDEX idx_sessions_archive_location_starts_at ON sessions_archive (location_id, starts_at);
+CREATE INDEX idx_sessions_archive_trainer_starts_at ON sessions_archive (trainer_employee_id, starts_at);
+
+CREATE TABLE reservations_archive (
+    id                BIGINT       NOT NULL,
+    member_id         BIGINT       NOT NULL,
+    session_id        BIGINT       NOT NULL,
+    session_starts_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    payment_id        BIGINT,
+    status            VARCHAR(30)  NOT NULL,
+    created_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    cancelled_at      TIMESTAMP(6) WITH TIME ZONE,
+    note              VARCHAR(200),
+    CONSTRAINT pk_reservations_archive PRIMARY KEY (id, session_starts_at)
+) PARTITION BY RANGE (session_starts_at);
+
+CREATE INDEX idx_reservations_archive_member ON reservations_archive (member_id, session_starts_at DESC);
+CREATE INDEX idx_reservations_archive_session ON reservations_archive (session_id);
+
+-- Creates the missing monthly partitions (UTC months) of both archive tables for [from_ts, to_ts].
+-- Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION ensure_archive_partitions(from_ts TIMESTAMPTZ, to_ts TIMESTAMPTZ)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    m       DATE := date_trunc('month', from_ts AT TIME ZONE 'UTC')::DATE;
+    created INTEGER := 0;
+    parent  TEXT;
+    part    TEXT;
+BEGIN
+    WHILE m <= (to_ts AT TIME ZONE 'UTC')::DATE LOOP
+        FOREACH parent IN ARRAY ARRAY['sessions_archive', 'reservations_archive'] LOOP
+            part := parent || to_char(m, '"_y"YYYY"m"MM');
+            IF to_regclass(part) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                               part, parent,
+                               m::TIMESTAMP AT TIME ZONE 'UTC',
+                               (m + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC');
+                created := created + 1;
+            END IF;
+        END LOOP;
+        m := (m + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- Detaches archive partitions whose month ended before before_ts; the detached tables stay in the
+-- database as plain tables until they are dumped and dropped. Returns the number of partitions detached.
+CREATE OR REPLACE FUNCTION detach_archive_partitions(before_ts TIMESTAMPTZ)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    p        RECORD;
+    detached INTEGER := 0;
+BEGIN
+    FOR p IN
+        SELECT parent.relname AS parent_name, child.relname AS part_name
+        FROM pg_inherits i
+        JOIN pg_class parent ON parent.oid = i.inhparent
+        JOIN pg_class child ON child.oid = i.inhrelid
+        WHERE parent.relname IN ('sessions_archive', 'reservations_archive')
+          AND child.relname ~ '_y[0-9]{4}m[0-9]{2}$'
+          AND (to_date(right(child.relname, 7), 'YYYY"m"MM') + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC' <= before_ts
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p.parent_name, p.part_name);
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END
+$$;
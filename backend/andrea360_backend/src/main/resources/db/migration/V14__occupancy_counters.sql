@@ -0,0 +1,45 @@
+-- Occupancy analytics: counters per (service, trainer, location, hour of week) plus each session's
+-- current contribution, so answers don't depend on how much history there is.
+CREATE TABLE occupancy_counters (
+    id                  BIGSERIAL NOT NULL,
+    fitness_service_id  BIGINT    NOT NULL,
+    trainer_employee_id BIGINT    NOT NULL,
+    location_id         BIGINT    NOT NULL,
+    hour_of_week        SMALLINT  NOT NULL,
+    session_count       BIGINT    NOT NULL,
+    capacity_total      BIGINT    NOT NULL,
+    booked_total        BIGINT    NOT NULL,
+    CONSTRAINT pk_occupancy_counters PRIMARY KEY (id),
+    CONSTRAINT uk_occupancy_counter_bucket
+        UNIQUE (fitness_service_id, trainer_employee_id, location_id, hour_of_week)
+);
+
+CREATE TABLE occupancy_session_states (
+    session_id          BIGINT   NOT NULL,
+    fitness_service_id  BIGINT,
+    trainer_employee_id BIGINT,
+    location_id         BIGINT,
+    hour_of_week        SMALLINT,
+    capacity            INTEGER  NOT NULL,
+    booked              INTEGER  NOT NULL,
+    CONSTRAINT pk_occupancy_session_states PRIMARY KEY (session_id)
+);
+
+-- initial fill, same as POST /api/analytics/occupancy/rebuild with the default app.timeZone
+INSERT INTO occupancy_session_states (session_id, fitness_service_id, trainer_employee_id, location_id,
+                                      hour_of_week, capacity, booked)
+SELECT s.id, s.fitness_service_id, s.trainer_employee_id, s.location_id,
+       CAST((EXTRACT(ISODOW FROM s.starts_at AT TIME ZONE 'Europe/Belgrade') - 1) * 24
+            + EXTRACT(HOUR FROM s.starts_at AT TIME ZONE 'Europe/Belgrade') AS SMALLINT),
+       s.capacity,
+       (SELECT COUNT(*) FROM reservations r
+        WHERE r.session_id = s.id AND r.status IN ('CREATED', 'CONFIRMED'))
+FROM sessions s
+WHERE UPPER(s.status) <> 'CANCELLED';
+
+INSERT INTO occupancy_counters (fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+                                session_count, capacity_total, booked_total)
+SELECT fitness_service_id, trainer_employee_id, location_id, hour_of_week,
+       COUNT(*), SUM(capacity), SUM(booked)
+FROM occupancy_session_states
+GROUP BY fitness_service_id, trainer_employee_id, location_id, hour_of_week;
@@ -0,0 +1,37 @@
+-- Index set for the queries in repository/, checked by QueryPlanTests.
+-- Already covered elsewhere:
+--   reservations (member_id, ...)        uq_reservation_member_session
+--   member_credits (member_id, ...)      uk_member_credit_member_service
+--   sessions (trainer_employee_id, ...)  idx_sessions_trainer_starts_at (V9)
+--   credit_transactions pending/by ref   idx_credit_tx_pending, idx_credit_tx_reference (V5)
+--   waitlist head and positions          idx_waitlist_session_order (V11)
+--   revenue_rollups, stripe_prices       their unique bucket/version constraints
+
+-- seat counts, agenda and cancel-with-refund: every lookup is by session and active status
+CREATE INDEX idx_reservations_session_status ON reservations (session_id, status);
+
+-- week view with and without a location filter
+CREATE INDEX idx_sessions_starts_at ON sessions (starts_at);
+CREATE INDEX idx_sessions_location_starts_at ON sessions (location_id, starts_at);
+
+-- member booking list per service; also the FK check when a fitness service is deleted
+CREATE INDEX idx_sessions_fitness_service_starts_at ON sessions (fitness_service_id, starts_at);
+
+-- member session list without a service filter: the day range, or the whole list in start order
+CREATE INDEX idx_sessions_scheduled_starts_at ON sessions (starts_at) WHERE lower(status) = 'scheduled';
+
+-- trainer calendar load and the archival sweep
+CREATE INDEX idx_sessions_ends_at ON sessions (ends_at);
+
+-- Stripe reconciliation keyset pages (status = ? and id > ? order by id)
+CREATE INDEX idx_payments_status_id ON payments (status, id);
+
+-- compaction takes the oldest pending ledger entries first
+CREATE INDEX idx_credit_tx_pending_id ON credit_transactions (id) WHERE compacted = FALSE;
+
+-- "my waitlist"
+CREATE INDEX idx_waitlist_member ON waitlist_entries (member_id);
+
+-- login and profile lookups (findByEmailIgnoreCase compares upper(email))
+CREATE INDEX idx_members_email_upper ON members (upper(email));
+CREATE INDEX idx_employees_email_upper ON employees (upper(email));
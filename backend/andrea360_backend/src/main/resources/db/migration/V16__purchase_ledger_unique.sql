@@ -0,0 +1,6 @@
+-- At most one PURCHASE entry per payment. The payment row lock already serializes the paths that
+-- apply credits; this makes a double application fail instead of granting the credits twice.
+-- Fails if a payment was already credited twice: GET /api/payments/ledger-mismatches lists those.
+CREATE UNIQUE INDEX uk_credit_tx_purchase_payment
+    ON credit_transactions (reference_id)
+    WHERE type = 'PURCHASE';
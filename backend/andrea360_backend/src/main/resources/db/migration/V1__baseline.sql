@@ -0,0 +1,112 @@
+-- Core tables as they stood before V2, previously created by Hibernate (ddl-auto). Later scripts
+-- build on top of this; an empty database migrates from here to the current schema.
+CREATE TABLE locations (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name    VARCHAR(120) NOT NULL,
+    address VARCHAR(200) NOT NULL,
+    CONSTRAINT pk_locations PRIMARY KEY (id),
+    CONSTRAINT uk_locations_name_address UNIQUE (name, address)
+);
+
+CREATE TABLE employees (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    first_name    VARCHAR(80)  NOT NULL,
+    last_name     VARCHAR(80)  NOT NULL,
+    email         VARCHAR(160) NOT NULL,
+    phone         VARCHAR(30),
+    role          VARCHAR(60)  NOT NULL,
+    auth_role     VARCHAR(30)  NOT NULL,
+    password_hash VARCHAR(100) NOT NULL,
+    location_id   BIGINT       NOT NULL,
+    CONSTRAINT pk_employees PRIMARY KEY (id),
+    CONSTRAINT uk_employee_email UNIQUE (email),
+    CONSTRAINT fk_employee_location FOREIGN KEY (location_id) REFERENCES locations (id)
+);
+
+CREATE TABLE members (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    first_name    VARCHAR(80)  NOT NULL,
+    last_name     VARCHAR(80)  NOT NULL,
+    email         VARCHAR(160) NOT NULL,
+    phone         VARCHAR(30),
+    password_hash VARCHAR(100) NOT NULL,
+    date_of_birth DATE         NOT NULL,
+    location_id   BIGINT       NOT NULL,
+    CONSTRAINT pk_members PRIMARY KEY (id),
+    CONSTRAINT uk_member_email UNIQUE (email),
+    CONSTRAINT fk_member_location FOREIGN KEY (location_id) REFERENCES locations (id)
+);
+
+CREATE TABLE fitness_services (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name             VARCHAR(120)   NOT NULL,
+    description      VARCHAR(500),
+    duration_minutes INTEGER        NOT NULL,
+    price            NUMERIC(12, 2) NOT NULL,
+    active           BOOLEAN        NOT NULL,
+    location_id      BIGINT         NOT NULL,
+    CONSTRAINT pk_fitness_services PRIMARY KEY (id),
+    CONSTRAINT uk_fitness_service_name UNIQUE (name),
+    CONSTRAINT fk_fitness_service_location FOREIGN KEY (location_id) REFERENCES locations (id)
+);
+
+CREATE TABLE sessions (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    starts_at           TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    ends_at             TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    capacity            INTEGER     NOT NULL,
+    status              VARCHAR(30) NOT NULL,
+    location_id         BIGINT      NOT NULL,
+    fitness_service_id  BIGINT      NOT NULL,
+    trainer_employee_id BIGINT      NOT NULL,
+    CONSTRAINT pk_sessions PRIMARY KEY (id),
+    CONSTRAINT fk_session_location FOREIGN KEY (location_id) REFERENCES locations (id),
+    CONSTRAINT fk_session_fitness_service FOREIGN KEY (fitness_service_id) REFERENCES fitness_services (id),
+    CONSTRAINT fk_session_trainer_employee FOREIGN KEY (trainer_employee_id) REFERENCES employees (id)
+);
+
+CREATE TABLE payments (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    member_id          BIGINT         NOT NULL,
+    fitness_service_id BIGINT         NOT NULL,
+    amount             NUMERIC(12, 2) NOT NULL,
+    currency           VARCHAR(10)    NOT NULL,
+    method             VARCHAR(30)    NOT NULL,
+    status             VARCHAR(30)    NOT NULL,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    paid_at            TIMESTAMP(6) WITH TIME ZONE,
+    external_ref       VARCHAR(120),
+    quantity           INTEGER        NOT NULL,
+    CONSTRAINT pk_payments PRIMARY KEY (id),
+    CONSTRAINT uk_payment_external_ref UNIQUE (external_ref),
+    CONSTRAINT fk_payment_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_payment_fitness_service FOREIGN KEY (fitness_service_id) REFERENCES fitness_services (id)
+);
+
+CREATE TABLE reservations (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    member_id    BIGINT      NOT NULL,
+    session_id   BIGINT      NOT NULL,
+    payment_id   BIGINT,
+    status       VARCHAR(30) NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    cancelled_at TIMESTAMP(6) WITH TIME ZONE,
+    note         VARCHAR(200),
+    CONSTRAINT pk_reservations PRIMARY KEY (id),
+    CONSTRAINT uq_reservation_member_session UNIQUE (member_id, session_id),
+    CONSTRAINT uk_reservation_payment UNIQUE (payment_id),
+    CONSTRAINT fk_reservation_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_reservation_session FOREIGN KEY (session_id) REFERENCES sessions (id),
+    CONSTRAINT fk_reservation_payment FOREIGN KEY (payment_id) REFERENCES payments (id)
+);
+
+CREATE TABLE member_credits (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    member_id          BIGINT  NOT NULL,
+    fitness_service_id BIGINT  NOT NULL,
+    available_credits  INTEGER NOT NULL,
+    CONSTRAINT pk_member_credits PRIMARY KEY (id),
+    CONSTRAINT uk_member_credit_member_service UNIQUE (member_id, fitness_service_id),
+    CONSTRAINT fk_member_credit_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_member_credit_fitness_service FOREIGN KEY (fitness_service_id) REFERENCES fitness_services (id)
+);
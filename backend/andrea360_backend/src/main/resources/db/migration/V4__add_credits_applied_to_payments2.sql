@@ -1,2 +1,3 @@
-ALTER TABLE payments
-    ADD COLUMN credits_applied numeric(19,2) NOT NULL DEFAULT 0;
+-- Used to add credits_applied a second time as NUMERIC, which fails after V3 on any database.
+-- V3 is right (Payment.creditsApplied is a boolean); kept as a harmless step so versions stay contiguous.
+ALTER TABLE payments ALTER COLUMN credits_applied SET DEFAULT FALSE;
@@ -0,0 +1,31 @@
+-- Append-only credit ledger; member_credits.available_credits becomes the compacted snapshot.
+-- Increment matches the JPA allocationSize so Hibernate can hand out ids in blocks of 50.
+CREATE SEQUENCE IF NOT EXISTS credit_transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE credit_transactions (
+    id                 BIGINT       NOT NULL DEFAULT nextval('credit_transactions_seq'),
+    member_id          BIGINT       NOT NULL,
+    fitness_service_id BIGINT       NOT NULL,
+    delta              INTEGER      NOT NULL,
+    type               VARCHAR(30)  NOT NULL,
+    reference_id       BIGINT,
+    compacted          BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_credit_transactions PRIMARY KEY (id),
+    CONSTRAINT fk_credit_tx_member FOREIGN KEY (member_id) REFERENCES members (id),
+    CONSTRAINT fk_credit_tx_fitness_service FOREIGN KEY (fitness_service_id) REFERENCES fitness_services (id)
+);
+
+-- balance reads only touch entries that are not folded into the snapshot yet
+CREATE INDEX idx_credit_tx_pending
+    ON credit_transactions (member_id, fitness_service_id)
+    WHERE compacted = FALSE;
+
+CREATE INDEX idx_credit_tx_reference
+    ON credit_transactions (type, reference_id);
+
+-- history for purchases made before the ledger existed; already part of the snapshot
+INSERT INTO credit_transactions (member_id, fitness_service_id, delta, type, reference_id, compacted, created_at)
+SELECT p.member_id, p.fitness_service_id, p.quantity, 'PURCHASE', p.id, TRUE, COALESCE(p.paid_at, p.created_at)
+FROM payments p
+WHERE p.status = 'PAID';
@@ -0,0 +1,29 @@
+-- Pre-aggregated revenue so reports don't scan payments; kept up to date on every PAID transition.
+CREATE TABLE revenue_rollups (
+    id                 BIGSERIAL      NOT NULL,
+    period_type        VARCHAR(10)    NOT NULL,
+    period_start       DATE           NOT NULL,
+    location_id        BIGINT         NOT NULL,
+    fitness_service_id BIGINT         NOT NULL,
+    currency           VARCHAR(10)    NOT NULL,
+    amount_total       NUMERIC(14, 2) NOT NULL,
+    quantity_total     BIGINT         NOT NULL,
+    payment_count      BIGINT         NOT NULL,
+    CONSTRAINT pk_revenue_rollups PRIMARY KEY (id),
+    CONSTRAINT uk_revenue_rollup_bucket
+        UNIQUE (period_type, period_start, location_id, fitness_service_id, currency)
+);
+
+-- initial fill, same as POST /api/reports/revenue/rebuild with the default app.timeZone
+INSERT INTO revenue_rollups (period_type, period_start, location_id, fitness_service_id, currency,
+                             amount_total, quantity_total, payment_count)
+SELECT b.period_type, b.period_start, fs.location_id, p.fitness_service_id, p.currency,
+       SUM(p.amount), SUM(p.quantity), COUNT(*)
+FROM payments p
+JOIN fitness_services fs ON fs.id = p.fitness_service_id
+CROSS JOIN LATERAL (VALUES
+    ('DAY',   CAST(date_trunc('day',   COALESCE(p.paid_at, p.created_at) AT TIME ZONE 'Europe/Belgrade') AS date)),
+    ('MONTH', CAST(date_trunc('month', COALESCE(p.paid_at, p.created_at) AT TIME ZONE 'Europe/Belgrade') AS date))
+) AS b(period_type, period_start)
+WHERE p.status = 'PAID'
+GROUP BY b.period_type, b.period_start, fs.location_id, p.fitness_service_id, p.currency;
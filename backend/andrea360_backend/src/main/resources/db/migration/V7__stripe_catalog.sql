@@ -0,0 +1,14 @@
+-- Stripe Product per fitness service and one Stripe Price per price version, reused across checkouts.
+ALTER TABLE fitness_services ADD COLUMN IF NOT EXISTS stripe_product_id VARCHAR(100);
+
+CREATE TABLE stripe_prices (
+    id                 BIGSERIAL    NOT NULL,
+    fitness_service_id BIGINT       NOT NULL,
+    currency           VARCHAR(10)  NOT NULL,
+    unit_amount        BIGINT       NOT NULL,
+    stripe_price_id    VARCHAR(100) NOT NULL,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_stripe_prices PRIMARY KEY (id),
+    CONSTRAINT uk_stripe_price_version UNIQUE (fitness_service_id, currency, unit_amount),
+    CONSTRAINT fk_stripe_price_fitness_service FOREIGN KEY (fitness_service_id) REFERENCES fitness_services (id)
+);
@@ -0,0 +1,8 @@
+-- Sessions move from IDENTITY to a pooled sequence (allocationSize 50) so bulk inserts can be batched.
+CREATE SEQUENCE IF NOT EXISTS sessions_seq INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer hands out [value - 49, value], so start one block above existing ids
+SELECT setval('sessions_seq', COALESCE((SELECT MAX(id) FROM sessions), 0) + 50);
+
+ALTER TABLE sessions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sessions ALTER COLUMN id SET DEFAULT nextval('sessions_seq');
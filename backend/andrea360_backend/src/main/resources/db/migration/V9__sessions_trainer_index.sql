@@ -0,0 +1,3 @@
+-- supports the trainer overlap check and the index fallback for ranges before the load horizon
+CREATE INDEX IF NOT EXISTS idx_sessions_trainer_starts_at
+    ON sessions (trainer_employee_id, starts_at, ends_at);
@@ -0,0 +1,361 @@
+package com.andrea360.backend.repository;
+
+import com.andrea360.backend.entity.enums.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs every per-request repository query against a seeded dataset of realistic size and fails when
+// one of them sequentially scans a large table. Scans are read from pg_stat_xact_user_tables, so they
+// reflect the plans Postgres really used with the real parameters; the failure message carries the
+// EXPLAIN of every statement the method sent. Everything is rolled back.
+//
+// Left out on purpose: the rebuilds (occupancy, revenue) and the credit reconciliation, which are
+// full passes by design, and the member session list without any filter, which returns past
+// sessions too (MyAppointments fills its history from it).
+@SpringBootTest(properties = {
+        "stripe.webhookSecret=test",
+        "stripe.reconcile.enabled=false",
+        "archive.enabled=false",
+        "cluster.invalidation.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.andrea360.backend.repository.QueryPlanTests$CapturingInspector"
+})
+@Transactional
+class QueryPlanTests {
+
+    private static final long BASE = 900_000_000L;
+    private static final int MEMBERS = 50_000;
+    private static final int TRAINERS = 50;
+    private static final int SERVICES = 20;
+    private static final int LOCATIONS = 5;
+    private static final int SESSIONS = 100_000;
+
+    private static final long TRAINER = BASE;
+    private static final long MEMBER = BASE + 7;
+    private static final long SERVICE = BASE + 3;
+    private static final long LOCATION = BASE + 1;
+    // slot 1950 of 2000, i.e. two days ahead; slots before 1900 are history
+    private static final long UPCOMING_SESSION = BASE + 1950L * TRAINERS;
+
+    private static final List<String> ACTIVE = List.of("CREATED", "CONFIRMED");
+    private static final List<String> LARGE_TABLES = List.of(
+            "sessions", "reservations", "members", "payments", "member_credits",
+            "credit_transactions", "waitlist_entries"
+    );
+    private static final List<String> LARGE_PARTITIONED = List.of("sessions_archive", "reservations_archive");
+
+    public static class CapturingInspector implements StatementInspector {
+        static final ThreadLocal<List<String>> CAPTURED = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            CAPTURED.get().add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired private SessionRepository sessionRepository;
+    @Autowired private ReservationRepository reservationRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private MemberCreditRepository memberCreditRepository;
+    @Autowired private CreditTransactionRepository creditTransactionRepository;
+    @Autowired private MemberRepository memberRepository;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private WaitlistEntryRepository waitlistEntryRepository;
+    @Autowired private OccupancyCounterRepository occupancyCounterRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+            INSERT INTO locations (id, name, address)
+            SELECT ? + g, 'Plan location ' || g, 'Plan street ' || g
+            FROM generate_series(0, ? - 1) g
+            """, BASE, LOCATIONS);
+
+        jdbcTemplate.update("""
+            INSERT INTO employees (id, first_name, last_name, email, role, auth_role, password_hash, location_id)
+            SELECT ? + g, 'Plan', 'Trainer ' || g, 'plan-trainer-' || g || '@plan.test', 'Trainer', 'EMPLOYEE', 'x', ? + g % ?
+            FROM generate_series(0, ? - 1) g
+            """, BASE, BASE, LOCATIONS, TRAINERS);
+
+        jdbcTemplate.update("""
+            INSERT INTO fitness_services (id, name, duration_minutes, price, active, location_id)
+            SELECT ? + g, 'Plan service ' || g, 50, 10.00, TRUE, ? + g % ?
+            FROM generate_series(0, ? - 1) g
+            """, BASE, BASE, LOCATIONS, SERVICES);
+
+        jdbcTemplate.update("""
+            INSERT INTO members (id, first_name, last_name, email, password_hash, date_of_birth, location_id)
+            SELECT ? + g, 'Plan', 'Member ' || g, 'plan-' || g || '@plan.test', 'x', DATE '1990-01-01', ? + g % ?
+            FROM generate_series(0, ? - 1) g
+            """, BASE, BASE, LOCATIONS, MEMBERS);
+
+        // one session per trainer and hour, 1900 hours of history and 100 ahead
+        jdbcTemplate.update("""
+            INSERT INTO sessions (id, starts_at, ends_at, capacity, status, location_id, fitness_service_id, trainer_employee_id)
+            SELECT ? + g,
+                   date_trunc('hour', now()) + (g / ? - 1900) * INTERVAL '1 hour',
+                   date_trunc('hour', now()) + (g / ? - 1900) * INTERVAL '1 hour' + INTERVAL '50 minutes',
+                   10,
+                   CASE WHEN g % 20 = 0 THEN 'CANCELLED' ELSE 'SCHEDULED' END,
+                   ? + g % ?, ? + g % ?, ? + g % ?
+            FROM generate_series(0, ? - 1) g
+            """, BASE, TRAINERS, TRAINERS, BASE, LOCATIONS, BASE, SERVICES, BASE, TRAINERS, SESSIONS);
+
+        jdbcTemplate.update("""
+            INSERT INTO reservations (id, member_id, session_id, status, created_at)
+            SELECT ? + g, ? + (g * 7919) % ?, ? + g / 4,
+                   CASE WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'CREATED' END, now()
+            FROM generate_series(0, ? * 4 - 1) g
+            """, BASE, BASE, MEMBERS, BASE, SESSIONS);
+
+        jdbcTemplate.update("""
+            INSERT INTO payments (id, member_id, fitness_service_id, amount, currency, method, status,
+                                  created_at, paid_at, external_ref, quantity, credits_applied)
+            SELECT ? + g, ? + g % ?, ? + g % ?, 10.00, 'EUR', 'ONLINE',
+                   CASE WHEN g % 10 = 0 THEN 'PENDING' ELSE 'PAID' END,
+                   now() - INTERVAL '1 day', now() - INTERVAL '1 day', 'cs_plan_' || g, 1, TRUE
+            FROM generate_series(0, 100000 - 1) g
+            """, BASE, BASE, MEMBERS, BASE, SERVICES);
+
+        jdbcTemplate.update("""
+            INSERT INTO member_credits (id, member_id, fitness_service_id, available_credits)
+            SELECT ? + g, ? + g, ? + g % ?, 3
+            FROM generate_series(0, ? - 1) g
+            """, BASE, BASE, BASE, SERVICES, MEMBERS);
+
+        jdbcTemplate.update("""
+            INSERT INTO credit_transactions (id, member_id, fitness_service_id, delta, type, reference_id, compacted, created_at)
+            SELECT ? + g, ? + g % ?, ? + (g % ?) % ?, 1, 'PURCHASE', ? + g % 100000, g % 4 <> 0, now()
+            FROM generate_series(0, 200000 - 1) g
+            """, BASE, BASE, MEMBERS, BASE, MEMBERS, SERVICES, BASE);
+
+        jdbcTemplate.update("""
+            INSERT INTO waitlist_entries (id, session_id, member_id, created_at)
+            SELECT ? + g, ? + g / 4, ? + (g * 7919 + 13) % ?, now()
+            FROM generate_series(0, 8000 - 1) g
+            """, BASE, UPCOMING_SESSION, BASE, MEMBERS);
+
+        jdbcTemplate.queryForObject("SELECT ensure_archive_partitions(now() - INTERVAL '120 days', now())", Integer.class);
+        jdbcTemplate.update("""
+            INSERT INTO sessions_archive (id, starts_at, ends_at, capacity, status, location_id,
+                                          fitness_service_id, trainer_employee_id, archived_at)
+            SELECT ? + 200000 + g,
+                   now() - INTERVAL '100 days' + (g / ?) * INTERVAL '1 hour',
+                   now() - INTERVAL '100 days' + (g / ?) * INTERVAL '1 hour' + INTERVAL '50 minutes',
+                   10, 'SCHEDULED', ? + g % ?, ? + g % ?, ? + g % ?, now()
+            FROM generate_series(0, 30000 - 1) g
+            """, BASE, TRAINERS, TRAINERS, BASE, LOCATIONS, BASE, SERVICES, BASE, TRAINERS);
+        jdbcTemplate.update("""
+            INSERT INTO reservations_archive (id, member_id, session_id, session_starts_at, status, created_at)
+            SELECT ? + 500000 + g, ? + (g * 7919) % ?, ? + 200000 + g / 4,
+                   now() - INTERVAL '100 days' + ((g / 4) / ?) * INTERVAL '1 hour', 'CREATED', now()
+            FROM generate_series(0, 120000 - 1) g
+            """, BASE, BASE, MEMBERS, BASE, TRAINERS);
+
+        // planner statistics see the rows of this (uncommitted) transaction
+        jdbcTemplate.execute("""
+            ANALYZE locations, employees, fitness_services, members, sessions, reservations, payments,
+                    member_credits, credit_transactions, waitlist_entries, sessions_archive, reservations_archive
+            """);
+    }
+
+    @Test
+    void perRequestQueriesAvoidSequentialScansOfLargeTables() {
+        OffsetDateTime now = OffsetDateTime.now();
+        LocalDate today = LocalDate.now();
+        long historicSession = BASE + 1000L * TRAINERS + 1;
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("SessionRepository.existsTrainerOverlap",
+                () -> sessionRepository.existsTrainerOverlap(TRAINER, now, now.plusHours(1), null));
+        queries.put("SessionRepository.findTrainerIntervals",
+                () -> sessionRepository.findTrainerIntervals(TRAINER, now, now.plusDays(7)));
+        queries.put("SessionRepository.findTrainerAgendaRows",
+                () -> sessionRepository.findTrainerAgendaRows(TRAINER, now, now.plusDays(7), ACTIVE));
+        queries.put("SessionRepository.findIndexableAfter",
+                () -> sessionRepository.findIndexableAfter(now.minusDays(1)));
+        queries.put("SessionRepository.findIndexableById",
+                () -> sessionRepository.findIndexableById(UPCOMING_SESSION));
+        queries.put("SessionRepository.findWeekRows (all locations)",
+                () -> sessionRepository.findWeekRows(null, now, now.plusDays(7)));
+        queries.put("SessionRepository.findWeekRows (one location)",
+                () -> sessionRepository.findWeekRows(LOCATION, now, now.plusDays(7)));
+        queries.put("SessionRepository.findSeatStates",
+                () -> sessionRepository.findSeatStates(List.of(UPCOMING_SESSION, UPCOMING_SESSION + 1), ACTIVE));
+        queries.put("SessionRepository.findScheduledForMemberBookingByService",
+                () -> sessionRepository.findScheduledForMemberBookingByService(SERVICE));
+        OffsetDateTime dayStart = today.plusDays(2).atStartOfDay(ZoneId.of("Europe/Belgrade")).toOffsetDateTime();
+        OffsetDateTime dayEnd = dayStart.plusDays(1);
+        queries.put("SessionRepository.findScheduledForMemberBookingByDate",
+                () -> sessionRepository.findScheduledForMemberBookingByDate(dayStart, dayEnd));
+        queries.put("SessionRepository.findScheduledForMemberBookingByServiceAndDate",
+                () -> sessionRepository.findScheduledForMemberBookingByServiceAndDate(SERVICE, dayStart, dayEnd));
+        queries.put("SessionRepository.findOldestStartEndedBefore",
+                () -> sessionRepository.findOldestStartEndedBefore(now.minusMonths(12)));
+        queries.put("SessionRepository.archiveEndedBefore",
+                () -> sessionRepository.archiveEndedBefore(now.minusMonths(12), 1000, now));
+
+        queries.put("ReservationRepository.existsByMemberIdAndSessionIdAndStatusIn",
+                () -> reservationRepository.existsByMemberIdAndSessionIdAndStatusIn(MEMBER, historicSession, ACTIVE));
+        queries.put("ReservationRepository.countBySessionIdAndStatusIn",
+                () -> reservationRepository.countBySessionIdAndStatusIn(historicSession, ACTIVE));
+        queries.put("ReservationRepository.findByMemberIdAndSessionId",
+                () -> reservationRepository.findByMemberIdAndSessionId(MEMBER, historicSession));
+        queries.put("ReservationRepository.countBySessionIdsAndStatuses",
+                () -> reservationRepository.countBySessionIdsAndStatuses(List.of(historicSession, historicSession + 1), ACTIVE));
+        queries.put("ReservationRepository.findAllByMemberIdWithDetails",
+                () -> reservationRepository.findAllByMemberIdWithDetails(MEMBER));
+        queries.put("ReservationRepository.findArchivedByMemberId",
+                () -> reservationRepository.findArchivedByMemberId(MEMBER));
+        queries.put("ReservationRepository.cancelActiveForSessionWithRefund",
+                () -> reservationRepository.cancelActiveForSessionWithRefund(historicSession + 2, SERVICE, now));
+        queries.put("ReservationRepository.deleteBySessionId",
+                () -> reservationRepository.deleteBySessionId(historicSession + 3));
+
+        queries.put("PaymentRepository.existsByExternalRef",
+                () -> paymentRepository.existsByExternalRef("cs_plan_42"));
+        queries.put("PaymentRepository.findByExternalRef",
+                () -> paymentRepository.findByExternalRef("cs_plan_42"));
+        queries.put("PaymentRepository.findByIdFull",
+                () -> paymentRepository.findByIdFull(BASE + 42));
+        queries.put("PaymentRepository.findStripeBatchAfter",
+                () -> paymentRepository.findStripeBatchAfter(PaymentStatus.PENDING, 0L, now, PageRequest.of(0, 100)));
+        queries.put("PaymentRepository.findByExternalRefForUpdate",
+                () -> paymentRepository.findByExternalRefForUpdate("cs_plan_42"));
+
+        queries.put("MemberCreditRepository.findByMemberIdAndFitnessServiceId",
+                () -> memberCreditRepository.findByMemberIdAndFitnessServiceId(MEMBER, BASE + 7 % SERVICES));
+        queries.put("MemberCreditRepository.sumCreditsByMemberId",
+                () -> memberCreditRepository.sumCreditsByMemberId(MEMBER));
+        queries.put("MemberCreditRepository.findBalance",
+                () -> memberCreditRepository.findBalance(MEMBER, BASE + 7 % SERVICES));
+        queries.put("MemberCreditRepository.findBalancesByMemberId",
+                () -> memberCreditRepository.findBalancesByMemberId(MEMBER));
+        queries.put("MemberCreditRepository.findVersionAndBalance",
+                () -> memberCreditRepository.findVersionAndBalance(MEMBER, BASE + 7 % SERVICES));
+        queries.put("MemberCreditRepository.bumpVersion",
+                () -> memberCreditRepository.bumpVersion(MEMBER, BASE + 7 % SERVICES, 0L));
+        queries.put("MemberCreditRepository.insertIfMissing",
+                () -> memberCreditRepository.insertIfMissing(MEMBER, SERVICE));
+        queries.put("CreditTransactionRepository.sumPendingDelta",
+                () -> creditTransactionRepository.sumPendingDelta(MEMBER, BASE + 7 % SERVICES));
+        queries.put("CreditTransactionRepository.compactPending",
+                () -> creditTransactionRepository.compactPending(1000));
+
+        queries.put("MemberRepository.findByEmailIgnoreCase",
+                () -> memberRepository.findByEmailIgnoreCase("PLAN-42@plan.test"));
+        queries.put("MemberRepository.existsByEmailIgnoreCase",
+                () -> memberRepository.existsByEmailIgnoreCase("PLAN-42@plan.test"));
+        queries.put("MemberRepository.existsByEmailIgnoreCaseAndIdNot",
+                () -> memberRepository.existsByEmailIgnoreCaseAndIdNot("PLAN-42@plan.test", MEMBER));
+        queries.put("EmployeeRepository.findByEmailIgnoreCase",
+                () -> employeeRepository.findByEmailIgnoreCase("PLAN-TRAINER-3@plan.test"));
+
+        queries.put("WaitlistEntryRepository.existsBySessionIdAndMemberId",
+                () -> waitlistEntryRepository.existsBySessionIdAndMemberId(UPCOMING_SESSION, MEMBER));
+        queries.put("WaitlistEntryRepository.findFirstBySessionIdOrderByIdAsc",
+                () -> waitlistEntryRepository.findFirstBySessionIdOrderByIdAsc(UPCOMING_SESSION));
+        queries.put("WaitlistEntryRepository.positionOf",
+                () -> waitlistEntryRepository.positionOf(UPCOMING_SESSION, BASE + 2));
+        queries.put("WaitlistEntryRepository.findByMemberIdWithPosition",
+                () -> waitlistEntryRepository.findByMemberIdWithPosition(BASE + 13));
+        queries.put("WaitlistEntryRepository.deleteBySessionIdAndMemberId",
+                () -> waitlistEntryRepository.deleteBySessionIdAndMemberId(UPCOMING_SESSION, BASE + 13));
+        queries.put("WaitlistEntryRepository.deleteBySessionId",
+                () -> waitlistEntryRepository.deleteBySessionId(UPCOMING_SESSION + 1));
+
+        queries.put("OccupancyCounterRepository.lockSessions",
+                () -> occupancyCounterRepository.lockSessions(List.of(UPCOMING_SESSION)));
+        queries.put("OccupancyCounterRepository.lockSessionStates",
+                () -> occupancyCounterRepository.lockSessionStates(List.of(UPCOMING_SESSION)));
+        queries.put("OccupancyCounterRepository.applySessionChanges",
+                () -> occupancyCounterRepository.applySessionChanges(List.of(UPCOMING_SESSION), "Europe/Belgrade"));
+
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            entityManager.flush();
+            entityManager.clear();
+            Map<String, Long> before = seqScans();
+            CapturingInspector.CAPTURED.get().clear();
+
+            query.run();
+            entityManager.flush();
+
+            List<String> statements = new ArrayList<>(CapturingInspector.CAPTURED.get());
+            Map<String, Long> after = seqScans();
+            List<String> scanned = after.keySet().stream()
+                    .filter(t -> after.get(t) > before.getOrDefault(t, 0L))
+                    .toList();
+            if (!scanned.isEmpty()) {
+                failures.add(name + " seq-scanned " + scanned + explain(statements));
+            }
+        });
+
+        assertTrue(failures.isEmpty(), String.join("\n\n", failures));
+    }
+
+    private Map<String, Long> seqScans() {
+        Map<String, Long> scans = new HashMap<>();
+        jdbcTemplate.query("SELECT relname, seq_scan FROM pg_stat_xact_user_tables", rs -> {
+            String table = rs.getString(1);
+            if (LARGE_TABLES.contains(table) || LARGE_PARTITIONED.stream().anyMatch(table::startsWith)) {
+                scans.put(table, rs.getLong(2));
+            }
+        });
+        return scans;
+    }
+
+    private String explain(List<String> statements) {
+        StringBuilder out = new StringBuilder();
+        for (String sql : statements) {
+            out.append("\n  ").append(sql);
+            try {
+                // generic plan, the captured SQL has placeholders instead of values
+                for (String line : jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numberPlaceholders(sql), String.class)) {
+                    out.append("\n    ").append(line);
+                }
+            } catch (Exception e) {
+                out.append("\n    (no plan: ").append(e.getMessage()).append(')');
+            }
+        }
+        return out.toString();
+    }
+
+    // JDBC "?" -> "$1", "$2", ... outside of string literals
+    private static String numberPlaceholders(String sql) {
+        StringBuilder out = new StringBuilder();
+        boolean quoted = false;
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') quoted = !quoted;
+            if (c == '?' && !quoted) {
+                out.append('$').append(++n);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,277 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.entity.Employee;
+import com.andrea360.backend.entity.FitnessService;
+import com.andrea360.backend.entity.Location;
+import com.andrea360.backend.entity.Member;
+import com.andrea360.backend.entity.Reservation;
+import com.andrea360.backend.entity.Session;
+import com.andrea360.backend.entity.enums.CreditTransactionType;
+import com.andrea360.backend.exception.BusinessException;
+import com.andrea360.backend.repository.EmployeeRepository;
+import com.andrea360.backend.repository.FitnessServiceRepository;
+import com.andrea360.backend.repository.LocationRepository;
+import com.andrea360.backend.repository.MemberRepository;
+import com.andrea360.backend.repository.ReservationRepository;
+import com.andrea360.backend.repository.SessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many members racing for the seats of one session: optimistic booking + retry vs the old
+// PESSIMISTIC_WRITE path. Writes committed data (removed again afterwards), so it only runs with -Dbenchmark=true.
+@SpringBootTest(properties = {
+        "stripe.webhookSecret=test",
+        "stripe.reconcile.enabled=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingContentionBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingContentionBenchmarkTests.class);
+
+    private static final int MEMBERS = 200;
+    private static final int THREADS = 32;
+    private static final int CAPACITY = 100;
+    private static final int ROUNDS = 5;
+    private static final List<String> ACTIVE_STATUSES = List.of("CREATED", "CONFIRMED");
+
+    @Autowired
+    private MemberBookingService memberBookingService;
+
+    @Autowired
+    private MemberCreditService memberCreditService;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private FitnessServiceRepository fitnessServiceRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Location location;
+    private Employee trainer;
+    private FitnessService service;
+    private final List<Long> memberIds = new ArrayList<>();
+    private int sessionSlot;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        location = locationRepository.save(
+                Location.builder().name("Bench " + suffix).address("Bench street 1").build());
+
+        trainer = new Employee();
+        trainer.setFirstName("Bench");
+        trainer.setLastName("Trainer");
+        trainer.setEmail("bench-trainer-" + suffix + "@test.local");
+        trainer.setRole("Trainer");
+        trainer.setPasswordHash("x");
+        trainer.setLocation(location);
+        trainer = employeeRepository.save(trainer);
+
+        service = new FitnessService();
+        service.setName("Bench service " + suffix);
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("10.00"));
+        service.setLocation(location);
+        service = fitnessServiceRepository.save(service);
+
+        for (int i = 0; i < MEMBERS; i++) {
+            Member m = new Member();
+            m.setFirstName("Bench");
+            m.setLastName("Member " + i);
+            m.setEmail("bench-" + suffix + "-" + i + "@test.local");
+            m.setPasswordHash("x");
+            m.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            m.setLocation(location);
+            Long id = memberRepository.save(m).getId();
+            memberIds.add(id);
+            // enough for every round, so credits never decide the outcome
+            memberCreditService.addCredits(id, service.getId(), 2 * ROUNDS, CreditTransactionType.ADJUSTMENT, null);
+        }
+    }
+
+    // everything hangs off this run's location and service, so the next run starts from the same data
+    @AfterEach
+    void tearDown() {
+        Long locationId = location.getId();
+        Long serviceId = service.getId();
+
+        jdbcTemplate.update("DELETE FROM reservations WHERE session_id IN (SELECT id FROM sessions WHERE fitness_service_id = ?)", serviceId);
+        jdbcTemplate.update("DELETE FROM waitlist_entries WHERE session_id IN (SELECT id FROM sessions WHERE fitness_service_id = ?)", serviceId);
+        jdbcTemplate.update("DELETE FROM occupancy_session_states WHERE fitness_service_id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM occupancy_counters WHERE fitness_service_id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM credit_transactions WHERE fitness_service_id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM member_credits WHERE fitness_service_id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM sessions WHERE fitness_service_id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM members WHERE location_id = ?", locationId);
+        jdbcTemplate.update("DELETE FROM fitness_services WHERE id = ?", serviceId);
+        jdbcTemplate.update("DELETE FROM employees WHERE id = ?", trainer.getId());
+        jdbcTemplate.update("DELETE FROM locations WHERE id = ?", locationId);
+        memberIds.clear();
+    }
+
+    @Test
+    void optimisticVersusPessimisticBooking() throws Exception {
+        // warm-up, so connection pool and JIT don't count against whichever runs first
+        run("warm-up optimistic", memberBookingService::bookSession);
+        run("warm-up pessimistic", this::bookWithRowLock);
+
+        List<Result> optimistic = new ArrayList<>();
+        List<Result> pessimistic = new ArrayList<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            optimistic.add(run("optimistic", memberBookingService::bookSession));
+            pessimistic.add(run("pessimistic", this::bookWithRowLock));
+        }
+
+        report("optimistic + retry", optimistic);
+        report("PESSIMISTIC_WRITE", pessimistic);
+    }
+
+    // the booking path as it was before versioning: session row locked for the whole transaction
+    private void bookWithRowLock(Long memberId, Long sessionId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = sessionRepository.findByIdForUpdate(sessionId).orElseThrow();
+            long booked = reservationRepository.countBySessionIdAndStatusIn(sessionId, ACTIVE_STATUSES);
+            if (booked >= session.getCapacity()) {
+                throw new BusinessException("Session is full.");
+            }
+
+            Reservation r = new Reservation();
+            r.setMember(memberRepository.getReferenceById(memberId));
+            r.setSession(session);
+            r.setStatus("CREATED");
+            r.setCreatedAt(OffsetDateTime.now());
+            Reservation saved = reservationRepository.save(r);
+
+            memberCreditService.consumeCredit(memberId, session.getFitnessService().getId(), saved.getId());
+        });
+    }
+
+    private Result run(String label, BiConsumer<Long, Long> book) throws Exception {
+        Long sessionId = newSession();
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (Long memberId : memberIds) {
+            pool.submit(() -> {
+                start.await();
+                long t0 = System.nanoTime();
+                try {
+                    book.accept(memberId, sessionId);
+                    booked.incrementAndGet();
+                } catch (BusinessException e) {
+                    full.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();
+                } finally {
+                    latencies.add(System.nanoTime() - t0);
+                }
+                return null;
+            });
+        }
+
+        long wallStart = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), label + " did not finish");
+        long wallNanos = System.nanoTime() - wallStart;
+
+        long stored = reservationRepository.countBySessionIdAndStatusIn(sessionId, ACTIVE_STATUSES);
+        assertEquals(booked.get(), stored, label + ": reported and stored bookings differ");
+        assertTrue(stored <= CAPACITY, label + ": session overbooked");
+        assertEquals(MEMBERS, booked.get() + full.get() + conflicts.get(), label + ": unexpected failures");
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(wallNanos, booked.get(), conflicts.get(), sorted);
+    }
+
+    private Long newSession() {
+        // one hour apart per run, the trainer exclusion constraint forbids overlaps
+        OffsetDateTime startsAt = OffsetDateTime.now().plusDays(30).plusHours(sessionSlot++);
+
+        Session s = new Session();
+        s.setStartsAt(startsAt);
+        s.setEndsAt(startsAt.plusMinutes(50));
+        s.setCapacity(CAPACITY);
+        s.setStatus("SCHEDULED");
+        s.setLocation(location);
+        s.setFitnessService(service);
+        s.setTrainer(trainer);
+        return sessionRepository.save(s).getId();
+    }
+
+    private void report(String label, List<Result> results) {
+        long wall = results.stream().mapToLong(Result::wallNanos).sum();
+        int attempts = results.size() * MEMBERS;
+        List<Long> all = new ArrayList<>();
+        results.forEach(r -> all.addAll(r.latencies()));
+        Collections.sort(all);
+
+        log.info("{}", String.format("%-20s throughput %8.1f req/s, p50 %6.1f ms, p99 %6.1f ms, booked %d, unresolved conflicts %d",
+                label,
+                attempts / (wall / 1e9),
+                percentile(all, 0.50) / 1e6,
+                percentile(all, 0.99) / 1e6,
+                results.stream().mapToInt(Result::booked).sum(),
+                results.stream().mapToInt(Result::conflicts).sum()));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(idx, sorted.size() - 1)));
+    }
+
+    private record Result(long wallNanos, int booked, int conflicts, List<Long> latencies) {
+    }
+}
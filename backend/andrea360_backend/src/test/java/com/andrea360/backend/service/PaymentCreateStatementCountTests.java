@@ -0,0 +1,129 @@
+package com.andrea360.backend.service;
+
+import com.andrea360.backend.dto.payment.CreatePaymentRequest;
+import com.andrea360.backend.dto.payment.PaymentResponse;
+import com.andrea360.backend.entity.FitnessService;
+import com.andrea360.backend.entity.Location;
+import com.andrea360.backend.entity.Member;
+import com.andrea360.backend.exception.NotFoundException;
+import com.andrea360.backend.repository.FitnessServiceRepository;
+import com.andrea360.backend.repository.LocationRepository;
+import com.andrea360.backend.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "stripe.webhookSecret=test",
+        "stripe.reconcile.enabled=false"
+})
+@Transactional
+class PaymentCreateStatementCountTests {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private MemberCreditService memberCreditService;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private FitnessServiceRepository fitnessServiceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void purchaseIsWrittenWithoutLoadingMemberOrService() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Location location = locationRepository.save(
+                Location.builder().name("Stmt test " + suffix).address("Test street 1").build());
+
+        Member member = new Member();
+        member.setFirstName("Statement");
+        member.setLastName("Counter");
+        member.setEmail("stmt-" + suffix + "@test.local");
+        member.setPasswordHash("x");
+        member.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        member.setLocation(location);
+        member = memberRepository.save(member);
+
+        FitnessService service = new FitnessService();
+        service.setName("Stmt service " + suffix);
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("12.50"));
+        service.setLocation(location);
+        service = fitnessServiceRepository.save(service);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        CreatePaymentRequest request = new CreatePaymentRequest();
+        request.setMemberId(member.getId());
+        request.setFitnessServiceId(service.getId());
+        request.setQuantity(4);
+        request.setAmount(new BigDecimal("50.00"));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        PaymentResponse response = paymentService.create(request);
+        entityManager.flush();
+
+        // payment insert, credit snapshot, ledger (+ sequence), rollup, full reload, creditsApplied update;
+        // loading the member and the service up front would add two more
+        assertTrue(stats.getPrepareStatementCount() <= 7, "statements: " + stats.getPrepareStatementCount());
+
+        assertTrue(response.isCreditsApplied());
+        assertEquals(0, new BigDecimal("50.00").compareTo(response.getAmount()));
+        assertEquals("Statement Counter", response.getMemberName());
+        assertEquals(location.getName(), response.getLocationName());
+        assertEquals(4, memberCreditService.getBalance(member.getId(), service.getId()));
+    }
+
+    @Test
+    void purchaseForUnknownMemberIsNotFound() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Location location = locationRepository.save(
+                Location.builder().name("Stmt test " + suffix).address("Test street 1").build());
+
+        FitnessService service = new FitnessService();
+        service.setName("Stmt service " + suffix);
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("12.50"));
+        service.setLocation(location);
+        service = fitnessServiceRepository.save(service);
+        entityManager.flush();
+
+        CreatePaymentRequest request = new CreatePaymentRequest();
+        request.setMemberId(Long.MAX_VALUE);
+        request.setFitnessServiceId(service.getId());
+        request.setAmount(new BigDecimal("12.50"));
+
+        assertThrows(NotFoundException.class, () -> paymentService.create(request));
+    }
+}